@@ -0,0 +1,150 @@
+package com.interview.code.challenge.highnote;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+import com.interview.code.challenge.highnote.model.OutputFormat;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.processor.EngineWarmup;
+import com.interview.code.challenge.highnote.processor.TransactionProcessorService;
+
+/**
+ * Command line entry point: applies one file of transaction messages and writes the non-zero accounts to standard output.
+ *
+ * <pre>
+ * usage: TransactionProcessorApplication [--format CSV|FIXED_WIDTH|LLVAR] [--warmup ROUNDS] [--timing] [FILE|-]
+ *        TransactionProcessorApplication --train [--warmup ROUNDS]
+ * </pre>
+ *
+ * {@code --train} only runs the warmup workload and exits; run it with {@code -XX:ArchiveClassesAtExit}
+ * to record an AppCDS archive of every class the engine loads. The {@code installDist} Gradle task does this
+ * through {@code trainCds} and the installed start scripts load the archive from {@code lib/engine.jsa}.
+ * {@code --timing} reports JVM start to main, main to first applied transaction, and total time on standard error.
+ */
+public final class TransactionProcessorApplication {
+    /**
+     * Warmup rounds used by {@code --train} when none are given; one round already loads every class.
+     */
+    private static final int DEFAULT_TRAINING_ROUNDS = 3;
+
+    private TransactionProcessorApplication() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        WritableByteChannel out = new FileOutputStream(FileDescriptor.out).getChannel();
+        System.exit(run(args, System.in, out, System.err));
+    }
+
+    /**
+     * Runs the application with explicit streams.
+     * @param args Command line arguments
+     * @param in Input used when no file or "-" is given
+     * @param out Destination of the account records
+     * @param err Destination of usage errors and timings
+     * @return Process exit code
+     * @throws IOException if the input cannot be read or the output cannot be written
+     */
+    public static int run(String[] args, InputStream in, WritableByteChannel out, PrintStream err) throws IOException {
+        long mainNanos = System.nanoTime();
+        OutputFormat format = OutputFormat.CSV;
+        int warmupRounds = -1;
+        boolean train = false;
+        boolean timing = false;
+        String file = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format" -> {
+                    if (++i == args.length) {
+                        return usage(err, "--format needs a value");
+                    }
+                    try {
+                        format = OutputFormat.valueOf(args[i]);
+                    } catch (IllegalArgumentException e) {
+                        return usage(err, String.format("Unknown format: %s", args[i]));
+                    }
+                }
+                case "--warmup" -> {
+                    if (++i == args.length) {
+                        return usage(err, "--warmup needs a value");
+                    }
+                    try {
+                        warmupRounds = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException e) {
+                        return usage(err, String.format("Invalid warmup rounds: %s", args[i]));
+                    }
+                }
+                case "--train" -> train = true;
+                case "--timing" -> timing = true;
+                default -> {
+                    if (Objects.nonNull(file)) {
+                        return usage(err, String.format("Unexpected argument: %s", args[i]));
+                    }
+                    file = args[i];
+                }
+            }
+        }
+
+        if (train) {
+            long started = System.nanoTime();
+            long applied = EngineWarmup.run(warmupRounds < 0 ? DEFAULT_TRAINING_ROUNDS : warmupRounds);
+            err.printf("Training run applied %d messages in %d ms%n", applied, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return 0;
+        }
+        if (warmupRounds > 0) {
+            EngineWarmup.run(warmupRounds);
+        }
+
+        String[] messages = readMessages(Objects.isNull(file) || file.equals("-") ? in : Files.newInputStream(Path.of(file)));
+        long[] firstAppliedNanos = {0};
+        long written = new TransactionProcessorService().processTransactions(
+                ProcessTransactionsRequest.builder().transactions(messages).build(), out, format,
+                () -> firstAppliedNanos[0] = System.nanoTime());
+
+        if (timing) {
+            long endNanos = System.nanoTime();
+            err.printf("jvm-start-to-main: %s ms%n", jvmStartToMainMillis(mainNanos));
+            err.printf("main-to-first-transaction: %.3f ms%n", messages.length > 0 ? (firstAppliedNanos[0] - mainNanos) / 1e6 : Double.NaN);
+            err.printf("main-to-end: %.3f ms (%d messages, %d accounts written)%n", (endNanos - mainNanos) / 1e6, messages.length, written);
+        }
+        return 0;
+    }
+
+    /**
+     * Estimates the time between JVM launch and entering main from the process start instant.
+     * @return Milliseconds, or "n/a" when the platform does not report the process start time
+     */
+    private static String jvmStartToMainMillis(long mainNanos) {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> {
+                    Instant mainInstant = Instant.now().minusNanos(System.nanoTime() - mainNanos);
+                    return String.valueOf(Duration.between(start, mainInstant).toMillis());
+                })
+                .orElse("n/a");
+    }
+
+    private static String[] readMessages(InputStream input) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.US_ASCII))) {
+            return reader.lines().toArray(String[]::new);
+        }
+    }
+
+    private static int usage(PrintStream err, String problem) {
+        err.println(problem);
+        err.println("usage: TransactionProcessorApplication [--format CSV|FIXED_WIDTH|LLVAR] [--warmup ROUNDS] [--timing] [FILE|-]");
+        err.println("       TransactionProcessorApplication --train [--warmup ROUNDS]");
+        return 2;
+    }
+}
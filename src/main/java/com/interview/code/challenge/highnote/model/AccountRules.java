@@ -0,0 +1,118 @@
+package com.interview.code.challenge.highnote.model;
+
+/**
+ * Business rules for a single account, written over its primitive fields so that every representation of
+ * an account applies exactly the same rules: {@link BankAccount} objects, and the flat account slots of the
+ * partitioned engine. The methods only decide and compute; callers store the results in their own fields.
+ */
+public final class AccountRules {
+
+    private AccountRules() {
+    }
+
+    /**
+     * Checks a deposit against the deposit rules.
+     * @param amountInCents Amount to deposit in cents
+     * @return The decision
+     */
+    public static RuleOutcome checkDeposit(long amountInCents) {
+        // Business rule: Deposit must be positive and not exceed $1000.00
+        if (amountInCents <= 0) {
+            return RuleOutcome.NOT_POSITIVE;
+        }
+        if (amountInCents > BankAccount.MAX_DEPOSIT_AMOUNT_CENTS) {
+            return RuleOutcome.OVER_TRANSACTION_LIMIT;
+        }
+        return RuleOutcome.ALLOWED;
+    }
+
+    /**
+     * Returns whether a deposit opens its account when the account does not exist yet.
+     * Only a deposit over the deposit limit is refused before the account is created, so a
+     * non-positive deposit still opens it.
+     *
+     * @param amountInCents Amount of the deposit in cents
+     * @return true if the account is created before the deposit itself is checked
+     */
+    public static boolean opensAccount(long amountInCents) {
+        return amountInCents <= BankAccount.MAX_DEPOSIT_AMOUNT_CENTS;
+    }
+
+    /**
+     * Checks an outgoing amount (withdrawal, transfer out or capture) against the outgoing rules.
+     * @param amountInCents Amount to debit in cents
+     * @param maxPerTransactionInCents Limit for a single transaction of this kind
+     * @param totalOutInCents Outgoing total already counted in the current window, see {@link #totalOutInWindow}
+     * @param availableInCents Balance left after pending holds
+     * @return The decision; when allowed, the new outgoing total is {@code totalOutInCents + amountInCents}
+     */
+    public static RuleOutcome checkDebit(long amountInCents, long maxPerTransactionInCents, long totalOutInCents, long availableInCents) {
+        // Business rule: Outgoing amount must be positive and within the per-transaction limit
+        if (amountInCents <= 0) {
+            return RuleOutcome.NOT_POSITIVE;
+        }
+        if (amountInCents > maxPerTransactionInCents) {
+            return RuleOutcome.OVER_TRANSACTION_LIMIT;
+        }
+        // Business rule: Total outgoing (withdrawals + transfers) must not exceed $500.00
+        if (totalOutInCents + amountInCents > BankAccount.MAX_TOTAL_OUT_CENTS) {
+            return RuleOutcome.OVER_OUTGOING_LIMIT;
+        }
+        // Business rule: Outgoing amount must not exceed the balance left after pending holds
+        if (availableInCents < amountInCents) {
+            return RuleOutcome.INSUFFICIENT_FUNDS;
+        }
+        return RuleOutcome.ALLOWED;
+    }
+
+    /**
+     * Checks an authorization hold. The hold amount follows the per-transaction withdrawal limit;
+     * the outgoing limit is enforced on capture.
+     *
+     * @param amountInCents Amount to reserve in cents
+     * @param availableInCents Balance left after other holds
+     * @return The decision
+     */
+    public static RuleOutcome checkHold(long amountInCents, long availableInCents) {
+        // Business rule: Hold must be positive and not exceed $200.00
+        if (amountInCents <= 0) {
+            return RuleOutcome.NOT_POSITIVE;
+        }
+        if (amountInCents > BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS) {
+            return RuleOutcome.OVER_TRANSACTION_LIMIT;
+        }
+        // Business rule: Hold must not exceed the balance left after other holds
+        if (availableInCents < amountInCents) {
+            return RuleOutcome.INSUFFICIENT_FUNDS;
+        }
+        return RuleOutcome.ALLOWED;
+    }
+
+    /**
+     * Returns the outgoing total counted against the limit in the current window.
+     * A counter last touched in an earlier window is treated as zero without being reset.
+     *
+     * @param totalOutInCents The account's recorded outgoing total
+     * @param accountEpoch Limit window in which that total was last updated
+     * @param currentEpoch The current outgoing limit window
+     * @return Outgoing total in cents within the current window
+     */
+    public static long totalOutInWindow(long totalOutInCents, long accountEpoch, long currentEpoch) {
+        return accountEpoch == currentEpoch ? totalOutInCents : 0;
+    }
+
+    /**
+     * Returns the recorded outgoing total after part of an earlier capture is reversed.
+     * Within the same limit window the reversed amount stops counting against the limit;
+     * a total from an earlier window is left as it is.
+     *
+     * @param totalOutInCents The account's recorded outgoing total
+     * @param accountEpoch Limit window in which that total was last updated
+     * @param currentEpoch The current outgoing limit window
+     * @param amountInCents Amount reversed in cents
+     * @return The new recorded outgoing total
+     */
+    public static long totalOutAfterReversal(long totalOutInCents, long accountEpoch, long currentEpoch, long amountInCents) {
+        return accountEpoch == currentEpoch ? Math.max(0, totalOutInCents - amountInCents) : totalOutInCents;
+    }
+}
@@ -8,7 +8,8 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Represents a virtual bank account with an account number and balance.
- * Provides methods for deposit and withdrawal operations with business rules enforcement.
+ * Provides methods for deposit and withdrawal operations with business rules enforcement;
+ * the rules themselves live in {@link AccountRules}.
  */
 @Data
 @Builder
@@ -19,22 +20,22 @@ public class BankAccount {
     /**
      * Maximum allowed deposit per transaction in cents ($1000.00).
      */
-    private static final long MAX_DEPOSIT_AMOUNT_CENTS = 100000;
+    public static final long MAX_DEPOSIT_AMOUNT_CENTS = 100000;
     
     /**
      * Maximum allowed withdrawal per transaction in cents ($200.00).
      */
-    private static final long MAX_WITHDRAWAL_PER_TRANSACTION_CENTS = 20000;
+    public static final long MAX_WITHDRAWAL_PER_TRANSACTION_CENTS = 20000;
     
     /**
      * Maximum allowed total outgoing (withdrawals + transfers) per account in cents ($500.00).
      */
-    private static final long MAX_TOTAL_OUT_CENTS = 50000;
+    public static final long MAX_TOTAL_OUT_CENTS = 50000;
     
     /**
      * Maximum allowed transfer per transaction in cents ($200.00).
      */
-    private static final long MAX_TRANSFER_PER_TRANSACTION_CENTS = 20000;
+    public static final long MAX_TRANSFER_PER_TRANSACTION_CENTS = 20000;
     
     /**
      * Maximum allowed total transfers from account in cents ($500.00).
@@ -51,8 +52,17 @@ public class BankAccount {
     private long balanceInCents;
     /**
      * Total amount withdrawn or transferred out from this account in cents.
+     * Only meaningful within {@link #limitEpoch}; a stale epoch means nothing has gone out in the current window.
      */
     private long totalOutInCents;
+    /**
+     * Outgoing limit window in which {@link #totalOutInCents} was last updated.
+     */
+    private long limitEpoch;
+    /**
+     * Sum of pending authorization holds in cents, reserved out of the balance.
+     */
+    private long heldInCents;
 
     /**
      * Deposits the specified amount into the account, enforcing the maximum deposit rule.
@@ -60,15 +70,17 @@ public class BankAccount {
      * @return true if deposit is successful, false otherwise
      */
     public boolean deposit(long amountInCents) {
-        // Business rule: Deposit must be positive and not exceed $1000.00
-        if (amountInCents <= 0) {
-            log.warn("Invalid deposit amount: {} cents for account {}", amountInCents, accountNumber);
-            return false;
-        }
-
-        if (amountInCents > MAX_DEPOSIT_AMOUNT_CENTS) {
-            log.warn("Deposit amount {} cents exceeds maximum limit {} cents for account {}", amountInCents, MAX_DEPOSIT_AMOUNT_CENTS, accountNumber);
-            return false;
+        switch (AccountRules.checkDeposit(amountInCents)) {
+            case NOT_POSITIVE -> {
+                log.warn("Invalid deposit amount: {} cents for account {}", amountInCents, accountNumber);
+                return false;
+            }
+            case OVER_TRANSACTION_LIMIT -> {
+                log.warn("Deposit amount {} cents exceeds maximum limit {} cents for account {}", amountInCents, MAX_DEPOSIT_AMOUNT_CENTS, accountNumber);
+                return false;
+            }
+            default -> {
+            }
         }
 
         balanceInCents += amountInCents;
@@ -76,41 +88,41 @@ public class BankAccount {
         return true;
     }
 
+    /**
+     * Credits the sum of several consecutive deposits in one balance update.
+     * Each deposit must already have been checked against the deposit rules individually.
+     *
+     * @param totalInCents Sum of the deposits in cents
+     * @param count Number of deposits combined
+     */
+    public void applyDeposits(long totalInCents, int count) {
+        balanceInCents += totalInCents;
+        log.info("Deposited {} cents in {} deposits to account {}. New balance: {} cents", totalInCents, count, accountNumber, balanceInCents);
+    }
+
     /**
      * Withdraws the specified amount from the account, enforcing sufficient funds and outgoing limits.
+     * The outgoing total is counted within the account's current limit window.
      *
      * @param amountInCents Amount to withdraw in cents
      * @return true if withdrawal is successful, false otherwise
      */
     public boolean withdraw(long amountInCents) {
-        // Business rule: Withdrawal must be positive
-        if (amountInCents <= 0) {
-            log.warn("Invalid withdrawal amount: {} cents for account {}", amountInCents, accountNumber);
-            return false;
-        }
-
-        // Business rule: Withdrawal must not exceed $200.00 per transaction
-        if (amountInCents > MAX_WITHDRAWAL_PER_TRANSACTION_CENTS) {
-            log.warn("Withdrawal amount {} cents exceeds maximum per transaction limit {} cents for account {}", 
-                    amountInCents, MAX_WITHDRAWAL_PER_TRANSACTION_CENTS, accountNumber);
-            return false;
-        }
-
-        // Business rule: Total outgoing (withdrawals + transfers) must not exceed $500.00
-        if (totalOutInCents + amountInCents > MAX_TOTAL_OUT_CENTS) {
-            log.warn("Withdrawal would exceed total outgoing limit. Current total: {} cents, Requested: {} cents, Limit: {} cents for account {}", 
-                    totalOutInCents, amountInCents, MAX_TOTAL_OUT_CENTS, accountNumber);
-            return false;
-        }
+        return withdraw(amountInCents, limitEpoch);
+    }
 
-        // Business rule: Withdrawal must not exceed current balance
-        if (balanceInCents < amountInCents) {
-            log.warn("Insufficient funds for withdrawal. Requested: {} cents, Available: {} cents for account {}", amountInCents, balanceInCents, accountNumber);
+    /**
+     * Withdraws the specified amount from the account, enforcing sufficient funds and outgoing limits
+     * within the given limit window.
+     *
+     * @param amountInCents Amount to withdraw in cents
+     * @param currentEpoch The current outgoing limit window
+     * @return true if withdrawal is successful, false otherwise
+     */
+    public boolean withdraw(long amountInCents, long currentEpoch) {
+        if (!debit(amountInCents, MAX_WITHDRAWAL_PER_TRANSACTION_CENTS, currentEpoch, "Withdrawal")) {
             return false;
         }
-
-        balanceInCents -= amountInCents;
-        totalOutInCents += amountInCents;
         log.info("Withdrew {} cents from account {}. New balance: {} cents, Total outgoing: {} cents", 
                 amountInCents, accountNumber, balanceInCents, totalOutInCents);
         return true;
@@ -124,39 +136,149 @@ public class BankAccount {
      * @return true if transfer out is successful, false otherwise
      */
     public boolean transferOut(long amountInCents) {
-        // Business rule: Transfer must be positive
-        if (amountInCents <= 0) {
-            log.warn("Invalid transfer amount: {} cents for account {}", amountInCents, accountNumber);
-            return false;
-        }
+        return transferOut(amountInCents, limitEpoch);
+    }
 
-        // Business rule: Transfer must not exceed $200.00 per transaction
-        if (amountInCents > MAX_TRANSFER_PER_TRANSACTION_CENTS) {
-            log.warn("Transfer amount {} cents exceeds maximum per transaction limit {} cents for account {}", 
-                    amountInCents, MAX_TRANSFER_PER_TRANSACTION_CENTS, accountNumber);
+    /**
+     * Transfers the specified amount out from the account, enforcing outgoing limits within the given limit window.
+     *
+     * @param amountInCents Amount to transfer out in cents
+     * @param currentEpoch The current outgoing limit window
+     * @return true if transfer out is successful, false otherwise
+     */
+    public boolean transferOut(long amountInCents, long currentEpoch) {
+        if (!debit(amountInCents, MAX_TRANSFER_PER_TRANSACTION_CENTS, currentEpoch, "Transfer")) {
             return false;
         }
+        log.info("Transferred out {} cents from account {}. New balance: {} cents, Total outgoing: {} cents", 
+                amountInCents, accountNumber, balanceInCents, totalOutInCents);
+        return true;
+    }
 
-        // Business rule: Total outgoing (withdrawals + transfers) must not exceed $500.00
-        if (totalOutInCents + amountInCents > MAX_TOTAL_OUT_CENTS) {
-            log.warn("Transfer would exceed total outgoing limit. Current total: {} cents, Requested: {} cents, Limit: {} cents for account {}", 
-                    totalOutInCents, amountInCents, MAX_TOTAL_OUT_CENTS, accountNumber);
-            return false;
+    /**
+     * Debits an outgoing amount if {@link AccountRules#checkDebit} allows it, counting it in the given limit window.
+     * @param amountInCents Amount to debit in cents
+     * @param maxPerTransactionInCents Limit for a single transaction of this kind
+     * @param currentEpoch The current outgoing limit window
+     * @param operation Name of the operation for log messages
+     * @return true if the amount was debited
+     */
+    private boolean debit(long amountInCents, long maxPerTransactionInCents, long currentEpoch, String operation) {
+        long currentTotalOutInCents = getTotalOutInCents(currentEpoch);
+        switch (AccountRules.checkDebit(amountInCents, maxPerTransactionInCents, currentTotalOutInCents, getAvailableBalanceInCents())) {
+            case NOT_POSITIVE -> {
+                log.warn("Invalid {} amount: {} cents for account {}", operation, amountInCents, accountNumber);
+                return false;
+            }
+            case OVER_TRANSACTION_LIMIT -> {
+                log.warn("{} amount {} cents exceeds maximum per transaction limit {} cents for account {}", 
+                        operation, amountInCents, maxPerTransactionInCents, accountNumber);
+                return false;
+            }
+            case OVER_OUTGOING_LIMIT -> {
+                log.warn("{} would exceed total outgoing limit. Current total: {} cents, Requested: {} cents, Limit: {} cents for account {}", 
+                        operation, currentTotalOutInCents, amountInCents, MAX_TOTAL_OUT_CENTS, accountNumber);
+                return false;
+            }
+            case INSUFFICIENT_FUNDS -> {
+                log.warn("Insufficient funds for {}. Requested: {} cents, Available: {} cents for account {}", operation, amountInCents, getAvailableBalanceInCents(), accountNumber);
+                return false;
+            }
+            default -> {
+            }
         }
 
-        // Business rule: Transfer must not exceed current balance
-        if (balanceInCents < amountInCents) {
-            log.warn("Insufficient funds for transfer. Requested: {} cents, Available: {} cents for account {}", amountInCents, balanceInCents, accountNumber);
-            return false;
+        balanceInCents -= amountInCents;
+        totalOutInCents = currentTotalOutInCents + amountInCents;
+        limitEpoch = currentEpoch;
+        return true;
+    }
+
+    /**
+     * Reserves part of the available balance for an authorization hold.
+     * The hold amount follows the per-transaction withdrawal limit; the outgoing limit is enforced on capture.
+     *
+     * @param amountInCents Amount to reserve in cents
+     * @return true if the hold was placed, false otherwise
+     */
+    public boolean placeHold(long amountInCents) {
+        switch (AccountRules.checkHold(amountInCents, getAvailableBalanceInCents())) {
+            case NOT_POSITIVE, OVER_TRANSACTION_LIMIT -> {
+                log.warn("Invalid hold amount: {} cents for account {}", amountInCents, accountNumber);
+                return false;
+            }
+            case INSUFFICIENT_FUNDS -> {
+                log.warn("Insufficient funds for hold. Requested: {} cents, Available: {} cents for account {}", amountInCents, getAvailableBalanceInCents(), accountNumber);
+                return false;
+            }
+            default -> {
+            }
         }
 
-        balanceInCents -= amountInCents;
-        totalOutInCents += amountInCents;
-        log.info("Transferred out {} cents from account {}. New balance: {} cents, Total outgoing: {} cents", 
-                amountInCents, accountNumber, balanceInCents, totalOutInCents);
+        heldInCents += amountInCents;
+        log.info("Placed hold of {} cents on account {}. Available: {} cents", amountInCents, accountNumber, getAvailableBalanceInCents());
         return true;
     }
 
+    /**
+     * Returns a previously placed hold to the available balance.
+     * @param amountInCents Amount of the hold in cents
+     */
+    public void releaseHold(long amountInCents) {
+        heldInCents -= amountInCents;
+        log.info("Released hold of {} cents on account {}. Available: {} cents", amountInCents, accountNumber, getAvailableBalanceInCents());
+    }
+
+    /**
+     * Settles a hold: releases the whole held amount and withdraws the captured part, which may be smaller.
+     * If the withdrawal is refused, e.g. by the outgoing limit, the hold stays in place.
+     *
+     * @param heldAmountInCents Amount of the hold in cents
+     * @param amountInCents Amount to capture in cents, at most the held amount
+     * @param currentEpoch The current outgoing limit window
+     * @return true if the capture succeeded, false otherwise
+     */
+    public boolean captureHold(long heldAmountInCents, long amountInCents, long currentEpoch) {
+        heldInCents -= heldAmountInCents;
+        if (withdraw(amountInCents, currentEpoch)) {
+            return true;
+        }
+        heldInCents += heldAmountInCents;
+        return false;
+    }
+
+    /**
+     * Credits back part of an earlier capture. Within the same limit window the reversed amount
+     * also stops counting against the outgoing limit.
+     *
+     * @param amountInCents Amount to reverse in cents
+     * @param currentEpoch The current outgoing limit window
+     */
+    public void reverseOut(long amountInCents, long currentEpoch) {
+        balanceInCents += amountInCents;
+        totalOutInCents = AccountRules.totalOutAfterReversal(totalOutInCents, limitEpoch, currentEpoch, amountInCents);
+        log.info("Reversed {} cents to account {}. New balance: {} cents", amountInCents, accountNumber, balanceInCents);
+    }
+
+    /**
+     * Returns the balance that is not reserved by pending holds.
+     * @return Available balance in cents
+     */
+    public long getAvailableBalanceInCents() {
+        return balanceInCents - heldInCents;
+    }
+
+    /**
+     * Returns the total outgoing counted against the limit in the given window.
+     * A counter last touched in an earlier window is treated as zero without being reset.
+     *
+     * @param currentEpoch The current outgoing limit window
+     * @return Total outgoing in cents within the window
+     */
+    public long getTotalOutInCents(long currentEpoch) {
+        return AccountRules.totalOutInWindow(totalOutInCents, limitEpoch, currentEpoch);
+    }
+
     /**
      * Returns the current balance in dollars.
      * @return Balance in dollars
@@ -0,0 +1,13 @@
+package com.interview.code.challenge.highnote.model;
+
+/**
+ * Enum representing the record layouts available when streaming account state.
+ */
+public enum OutputFormat {
+    /** Comma separated: account number, balance in dollars with two decimals, newline */
+    CSV,
+    /** Account number left-aligned and balance in dollars right-aligned in fixed columns, newline */
+    FIXED_WIDTH,
+    /** LLVAR account number followed by the balance as a 10-digit zero-padded amount in cents, newline */
+    LLVAR
+}
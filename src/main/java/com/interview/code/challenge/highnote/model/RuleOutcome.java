@@ -0,0 +1,18 @@
+package com.interview.code.challenge.highnote.model;
+
+/**
+ * Enum representing the decision of an {@link AccountRules} check on a single account.
+ * Every outcome except {@link #ALLOWED} means the account must be left unchanged.
+ */
+public enum RuleOutcome {
+    /** The change may be applied */
+    ALLOWED,
+    /** Amount is zero or negative */
+    NOT_POSITIVE,
+    /** Amount exceeds the limit for a single transaction of its kind */
+    OVER_TRANSACTION_LIMIT,
+    /** Amount would take the outgoing total of the current limit window over its cap */
+    OVER_OUTGOING_LIMIT,
+    /** Amount exceeds the balance left after pending holds */
+    INSUFFICIENT_FUNDS
+}
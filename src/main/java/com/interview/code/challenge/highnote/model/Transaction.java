@@ -57,17 +57,18 @@ public class Transaction {
         String transactionCode = message.substring(0, 4);
         TransactionType type = TransactionType.fromCode(transactionCode);
        
-        return switch (type) {
-            case TRANSFER -> parseTransferMessage(message);
-            case DEPOSIT, WITHDRAWAL -> parseDepositWithdrawalMessage(message, type);
-        };
+        // The layout declared by the type decides how many LLVAR fields precede the amount
+        return type.getAccountFields() == 2
+                ? parseTransferMessage(message, type)
+                : parseDepositWithdrawalMessage(message, type);
     }
     
     /**
      * Parses a transfer transaction message.
      * Format: 2010<LLVAR-SOURCE-ACCOUNT><LLVAR-DEST-ACCOUNT><AMOUNT-IN-10-DIGITS>
+     * Also used for any other type whose layout has two LLVAR fields.
      */
-    private static Transaction parseTransferMessage(String message) {
+    private static Transaction parseTransferMessage(String message, TransactionType type) {
         int currentPos = 4; // Skip transaction code
         
         // Parse source account number
@@ -104,11 +105,11 @@ public class Transaction {
         String amountStr = message.substring(currentPos);
         long amountInCents = Long.parseLong(amountStr);
         
-        log.debug("Parsed transfer transaction: source={}, destination={}, amount={} cents", 
-                sourceAccountNumber, destinationAccountNumber, amountInCents);
+        log.debug("Parsed {} transaction: source={}, destination={}, amount={} cents",
+                type, sourceAccountNumber, destinationAccountNumber, amountInCents);
         
         return Transaction.builder()
-                .type(TransactionType.TRANSFER)
+                .type(type)
                 .accountNumber(sourceAccountNumber) // For backward compatibility
                 .sourceAccountNumber(sourceAccountNumber)
                 .destinationAccountNumber(destinationAccountNumber)
@@ -0,0 +1,29 @@
+package com.interview.code.challenge.highnote.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of applying one transaction message from an asynchronous submission.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionOutcome {
+    /**
+     * Sequence number of the submission the message belongs to, in submission order.
+     */
+    private long submissionId;
+    /**
+     * Position of the message within its submission.
+     */
+    private int index;
+    private String message;
+    /**
+     * True if the transaction was applied, false if it was quarantined or rejected.
+     */
+    private boolean applied;
+}
@@ -1,24 +1,61 @@
 package com.interview.code.challenge.highnote.model;
 
+import java.util.Objects;
+
 import lombok.Getter;
 
 /**
  * Enum representing the type of transaction operation for a bank account.
- * Each type is associated with a unique 4-character code.
+ * Each type is associated with a unique 4-digit code and the layout of its message:
+ * the number of LLVAR account fields between the code and the 10-digit amount.
+ *
+ * Adding a type means adding a constant here and registering a handler for it with the processor;
+ * validation and parsing follow the declared layout.
  */
 @Getter
 public enum TransactionType {
     /** Deposit operation (code: 1010) */
-    DEPOSIT("1010"),
+    DEPOSIT("1010", 1, false),
     /** Withdrawal operation (code: 1020) */
-    WITHDRAWAL("1020"),
+    WITHDRAWAL("1020", 1, true),
     /** Transfer operation (code: 2010) */
-    TRANSFER("2010");
-    
+    TRANSFER("2010", 2, true),
+    /** Authorization hold reserving part of the balance (code: 3010); second field is the hold id */
+    HOLD("3010", 2, false),
+    /** Capture of a pending hold, in full or in part (code: 3020); second field is the hold id */
+    CAPTURE("3020", 2, true),
+    /** Release of a pending hold without capturing it (code: 3030); second field is the hold id, amount is ignored */
+    RELEASE("3030", 2, false),
+    /** Reversal of a captured hold, in full or in part (code: 3040); second field is the hold id */
+    REVERSAL("3040", 2, false);
+
+    /** Number of distinct 4-digit codes. */
+    private static final int CODE_SPACE = 10_000;
+    /** Direct lookup table from numeric code to type; null where no type is defined. */
+    private static final TransactionType[] BY_CODE = new TransactionType[CODE_SPACE];
+
+    static {
+        for (TransactionType type : values()) {
+            int code = decode(type.code, 0);
+            if (code < 0 || Objects.nonNull(BY_CODE[code])) {
+                throw new IllegalStateException(String.format("Invalid or duplicate transaction code: %s", type.code));
+            }
+            BY_CODE[code] = type;
+        }
+    }
+
     /** The 4-character code for the transaction type.*/
     private final String code;
-    
-    TransactionType(String code) { this.code = code; }
+    /** Number of LLVAR account fields in the message: 1 for the account only, 2 for account and counterpart. */
+    private final int accountFields;
+    /** Whether the transaction moves money out of the account and counts against the outgoing limit. */
+    private final boolean outgoing;
+
+    TransactionType(String code, int accountFields, boolean outgoing) {
+        this.code = code;
+        this.accountFields = accountFields;
+        this.outgoing = outgoing;
+    }
 
     /**
      * Returns the TransactionType corresponding to the given code.
@@ -28,11 +65,39 @@ public enum TransactionType {
      */
     public static TransactionType fromCode(String code) {
         // Business logic: Match code to enum value
-        for (TransactionType type : values()) {
-            if (type.code.equals(code)) {
-                return type;
+        TransactionType type = Objects.isNull(code) || code.length() != 4 ? null : fromMessage(code);
+        if (Objects.isNull(type)) {
+            throw new IllegalArgumentException(String.format("Unknown transaction code: %s", code));
+        }
+        return type;
+    }
+
+    /**
+     * Returns the type whose code starts the given message, using a direct table lookup on the numeric code.
+     * @param message The raw transaction message
+     * @return The matching TransactionType, or null if the message does not start with a known code
+     */
+    public static TransactionType fromMessage(CharSequence message) {
+        if (Objects.isNull(message) || message.length() < 4) {
+            return null;
+        }
+        int code = decode(message, 0);
+        return code < 0 ? null : BY_CODE[code];
+    }
+
+    /**
+     * Decodes four ASCII digits starting at the given position.
+     * @return The numeric value, or -1 if any character is not a digit
+     */
+    private static int decode(CharSequence digits, int position) {
+        int value = 0;
+        for (int i = position; i < position + 4; i++) {
+            char c = digits.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
             }
+            value = value * 10 + (c - '0');
         }
-        throw new IllegalArgumentException(String.format("Unknown transaction code: %s", code));
+        return value;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.interview.code.challenge.highnote.model;
+
+/**
+ * Enum representing the outcome of structurally validating a raw transaction message.
+ * Every status except {@link #VALID} means the message cannot be parsed.
+ */
+public enum ValidationStatus {
+    /** Message is structurally well formed */
+    VALID,
+    /** Message is null or shorter than the 4-character transaction code */
+    MISSING_CODE,
+    /** Transaction code does not match any known type */
+    UNKNOWN_CODE,
+    /** An LLVAR length prefix is missing, non-numeric or zero */
+    INVALID_LENGTH_PREFIX,
+    /** Message length does not match the length implied by its fields */
+    INVALID_TOTAL_LENGTH,
+    /** Amount field contains characters other than digits */
+    INVALID_AMOUNT
+}
@@ -0,0 +1,144 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Maintains running totals and ranked indexes over the accounts of a {@link TransactionProcessor}.
+ * The indexes are updated on every balance or outgoing-total change, so reporting queries
+ * are answered from maintained state instead of scanning and sorting the full account map.
+ * Only accounts with a non-zero value are indexed; zero-valued accounts are implied.
+ */
+public class AccountAggregates {
+    /**
+     * Orders index entries by value, breaking ties by account number.
+     */
+    private static final Comparator<RankedAccount> RANK_ORDER = Comparator
+            .comparingLong(RankedAccount::valueInCents)
+            .thenComparing(RankedAccount::accountNumber);
+
+    /**
+     * Sum of all account balances in cents.
+     */
+    private long totalBalanceInCents;
+    /**
+     * Accounts with a non-zero balance, ordered by balance.
+     */
+    private final NavigableSet<RankedAccount> byBalance = new TreeSet<>(RANK_ORDER);
+    /**
+     * Accounts with a non-zero outgoing total, ordered by outgoing total.
+     */
+    private NavigableSet<RankedAccount> byTotalOut = new TreeSet<>(RANK_ORDER);
+
+    /**
+     * Immutable index entry pairing an account number with the value it is ranked by.
+     */
+    record RankedAccount(long valueInCents, String accountNumber) {
+    }
+
+    /**
+     * Applies a change in an account's balance and outgoing total to the aggregates.
+     *
+     * @param accountNumber The account that changed
+     * @param previousBalanceInCents Balance before the change
+     * @param previousTotalOutInCents Outgoing total before the change
+     * @param balanceInCents Balance after the change
+     * @param totalOutInCents Outgoing total after the change
+     */
+    void onAccountChanged(String accountNumber, long previousBalanceInCents, long previousTotalOutInCents,
+                          long balanceInCents, long totalOutInCents) {
+        totalBalanceInCents += balanceInCents - previousBalanceInCents;
+        reindex(byBalance, accountNumber, previousBalanceInCents, balanceInCents);
+        reindex(byTotalOut, accountNumber, previousTotalOutInCents, totalOutInCents);
+    }
+
+    /**
+     * Drops the outgoing-total index when every account's outgoing total starts over.
+     */
+    void resetTotalOut() {
+        byTotalOut = new TreeSet<>(RANK_ORDER);
+    }
+
+    /**
+     * Moves an account to its new position in a ranked index.
+     */
+    private static void reindex(NavigableSet<RankedAccount> index, String accountNumber,
+                                long previousValueInCents, long valueInCents) {
+        if (previousValueInCents == valueInCents) {
+            return;
+        }
+        if (previousValueInCents != 0) {
+            index.remove(new RankedAccount(previousValueInCents, accountNumber));
+        }
+        if (valueInCents != 0) {
+            index.add(new RankedAccount(valueInCents, accountNumber));
+        }
+    }
+
+    /**
+     * Returns the sum of all account balances.
+     * @return Total book balance in cents
+     */
+    public long getTotalBalanceInCents() {
+        return totalBalanceInCents;
+    }
+
+    /**
+     * Returns the number of accounts holding a non-zero balance.
+     * @return Count of non-zero accounts
+     */
+    public int getNonZeroAccountCount() {
+        return byBalance.size();
+    }
+
+    /**
+     * Returns the account numbers with the highest balances, highest first.
+     * @param limit Maximum number of accounts to return
+     * @return Account numbers ordered by descending balance
+     */
+    public List<String> getTopByBalance(int limit) {
+        return top(byBalance, limit);
+    }
+
+    /**
+     * Returns the account numbers with the highest outgoing totals, highest first.
+     * @param limit Maximum number of accounts to return
+     * @return Account numbers ordered by descending outgoing total
+     */
+    public List<String> getTopByTotalOut(int limit) {
+        return top(byTotalOut, limit);
+    }
+
+    /**
+     * Returns the account numbers whose outgoing total is within the given distance of the limit.
+     * Only accounts with outgoing activity are considered.
+     *
+     * @param limitInCents The outgoing limit in cents
+     * @param withinInCents Maximum remaining headroom in cents
+     * @return Account numbers ordered by descending outgoing total
+     */
+    public List<String> getWithinOfLimit(long limitInCents, long withinInCents) {
+        RankedAccount floor = new RankedAccount(limitInCents - withinInCents, "");
+        NavigableSet<RankedAccount> nearLimit = byTotalOut.tailSet(floor, true);
+        return top(nearLimit, nearLimit.size());
+    }
+
+    /**
+     * Walks an index from its highest entry down, collecting up to {@code limit} account numbers.
+     */
+    private static List<String> top(NavigableSet<RankedAccount> index, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, index.size()));
+        Iterator<RankedAccount> iterator = index.descendingIterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next().accountNumber());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,200 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Account state of one {@link PartitionedTransactionEngine} worker, stored in flat buffers instead of
+ * one {@link BankAccount} object per account.
+ *
+ * Each account is a slot: its numeric fields sit next to each other in an off-heap buffer, and its
+ * number in a parallel array. An open-addressing table, also off heap, maps account numbers to slots.
+ * The buffers are allocated by the owning worker, and {@link ByteBuffer#allocateDirect} zeroes them on the
+ * allocating thread, so under the default first-touch policy a pinned worker's pages are placed on its own
+ * NUMA node. The account number Strings live on the heap; the worker copies each number as it opens the
+ * account, which makes the copy node-local too when the JVM runs with {@code -XX:+UseNUMA}.
+ * The numeric buffer starts and ends with padding so no two workers' arenas share a line.
+ *
+ * Slots themselves are not padded to a cache line each. False sharing needs two cores writing the same
+ * line, and every slot of an arena is written by its one worker, so the only lines written by different
+ * cores are at the ends of the buffers, which the padding covers. Packing two accounts per line instead
+ * halves the cache and memory footprint of a partition; a slot per line would double it for no gain.
+ * Direct memory is capped by {@code -XX:MaxDirectMemorySize}. Not thread-safe: only the owning worker uses
+ * an arena while a run is in progress.
+ */
+final class AccountArena {
+    static final int BALANCE = 0;
+    static final int TOTAL_OUT = 1;
+    static final int LIMIT_EPOCH = 2;
+    static final int HELD = 3;
+    /**
+     * Longs per slot; four fields, so two accounts of the same worker share one 64-byte cache line.
+     */
+    private static final int FIELDS = 4;
+    /**
+     * Longs of padding before the first and after the last slot: two cache lines, to also keep
+     * adjacent-line prefetching from pulling in another worker's data.
+     */
+    private static final int PADDING = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Largest slot count whose field buffer still fits in one direct buffer.
+     */
+    private static final int MAX_CAPACITY = 1 << 25;
+
+    /**
+     * Account fields, {@link #FIELDS} longs per slot after {@link #PADDING} longs, in native byte order.
+     */
+    private ByteBuffer fields;
+    /**
+     * Account number of each slot.
+     */
+    private String[] accountNumbers;
+    /**
+     * Open-addressing table of slot + 1 by account number hash, one int per entry; zero marks an empty entry.
+     */
+    private ByteBuffer table;
+    private int tableMask;
+    private int size;
+
+    AccountArena() {
+        this.fields = allocateFields(INITIAL_CAPACITY);
+        this.accountNumbers = new String[INITIAL_CAPACITY];
+        this.table = allocateTable(2 * INITIAL_CAPACITY);
+        this.tableMask = 2 * INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * Returns the slot of an account.
+     * @param accountNumber The account number to look up
+     * @return The slot, or -1 if the account does not exist
+     */
+    int find(String accountNumber) {
+        for (int index = spread(accountNumber.hashCode()) & tableMask; ; index = (index + 1) & tableMask) {
+            int entry = table.getInt(index * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (accountNumbers[entry - 1].equals(accountNumber)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Adds an empty account. The caller must have checked that it does not exist yet.
+     * The number is copied, so the arena never holds on to a String allocated by another thread.
+     * @param accountNumber The new account's number
+     * @param limitEpoch The current outgoing limit window
+     * @return The new account's slot
+     */
+    int open(String accountNumber, long limitEpoch) {
+        if (size == accountNumbers.length) {
+            grow();
+        }
+        int slot = size++;
+        accountNumbers[slot] = new String(accountNumber.toCharArray());
+        set(slot, LIMIT_EPOCH, limitEpoch);
+        insert(table, tableMask, accountNumbers[slot], slot);
+        return slot;
+    }
+
+    long get(int slot, int field) {
+        return fields.getLong(offset(slot, field));
+    }
+
+    void set(int slot, int field, long value) {
+        fields.putLong(offset(slot, field), value);
+    }
+
+    void add(int slot, int field, long delta) {
+        int offset = offset(slot, field);
+        fields.putLong(offset, fields.getLong(offset) + delta);
+    }
+
+    String getAccountNumber(int slot) {
+        return accountNumbers[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies a slot into a standalone account.
+     * @param slot The slot to copy
+     * @return A new BankAccount with the slot's state
+     */
+    BankAccount toAccount(int slot) {
+        return BankAccount.builder()
+                .accountNumber(accountNumbers[slot])
+                .balanceInCents(get(slot, BALANCE))
+                .totalOutInCents(get(slot, TOTAL_OUT))
+                .limitEpoch(get(slot, LIMIT_EPOCH))
+                .heldInCents(get(slot, HELD))
+                .build();
+    }
+
+    /**
+     * Visits a copy of every account in slot order.
+     * @param action Action applied to each account
+     */
+    void forEach(Consumer<BankAccount> action) {
+        for (int slot = 0; slot < size; slot++) {
+            action.accept(toAccount(slot));
+        }
+    }
+
+    /**
+     * Doubles the capacity, keeping the table at most half full. Runs on the owning worker, like the
+     * first allocation, so the new buffers are first touched on the same node.
+     */
+    private void grow() {
+        int capacity = accountNumbers.length * 2;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("Partition is full: %d accounts", size));
+        }
+        ByteBuffer grownFields = allocateFields(capacity);
+        grownFields.put(0, fields, 0, fields.capacity());
+        fields = grownFields;
+        accountNumbers = Arrays.copyOf(accountNumbers, capacity);
+        ByteBuffer grownTable = allocateTable(2 * capacity);
+        int grownMask = 2 * capacity - 1;
+        for (int slot = 0; slot < size; slot++) {
+            insert(grownTable, grownMask, accountNumbers[slot], slot);
+        }
+        table = grownTable;
+        tableMask = grownMask;
+    }
+
+    private static int offset(int slot, int field) {
+        return (PADDING + slot * FIELDS + field) * Long.BYTES;
+    }
+
+    private static ByteBuffer allocateFields(int capacity) {
+        return ByteBuffer.allocateDirect((2 * PADDING + capacity * FIELDS) * Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer allocateTable(int entries) {
+        return ByteBuffer.allocateDirect(entries * Integer.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private static void insert(ByteBuffer table, int mask, String accountNumber, int slot) {
+        int index = spread(accountNumber.hashCode()) & mask;
+        while (table.getInt(index * Integer.BYTES) != 0) {
+            index = (index + 1) & mask;
+        }
+        table.putInt(index * Integer.BYTES, slot + 1);
+    }
+
+    /**
+     * Mixes the high bits of a hash into the low ones, which pick the table entry.
+     */
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B1;
+    }
+}
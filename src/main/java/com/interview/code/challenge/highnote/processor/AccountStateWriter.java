@@ -0,0 +1,224 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.interview.code.challenge.highnote.model.OutputFormat;
+
+/**
+ * Streams account numbers and balances to a channel through a single reusable byte buffer.
+ * Balances are formatted from integer cents digit by digit, so no intermediate strings,
+ * floating point values or response objects are created per account.
+ */
+public class AccountStateWriter {
+    /**
+     * Default size of the reusable output buffer in bytes.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * Default width of the account number column in {@link OutputFormat#FIXED_WIDTH} output.
+     */
+    static final int DEFAULT_ACCOUNT_WIDTH = 20;
+    /**
+     * Width of the balance column in {@link OutputFormat#FIXED_WIDTH} output.
+     */
+    private static final int BALANCE_WIDTH = 15;
+    /**
+     * Width of the zero-padded amount in {@link OutputFormat#LLVAR} output, matching the input message format.
+     */
+    private static final int LLVAR_AMOUNT_WIDTH = 10;
+    /**
+     * Largest account number that fits a two-digit LLVAR length prefix.
+     */
+    private static final int LLVAR_MAX_LENGTH = 99;
+    /**
+     * Largest value that fits the LLVAR amount field.
+     */
+    private static final long LLVAR_MAX_AMOUNT = 9_999_999_999L;
+    /**
+     * Bytes a record may need besides the account number and padding: LLVAR prefix, separator,
+     * sign, 19 digits, decimal point and newline.
+     */
+    private static final int MAX_FIXED_RECORD_OVERHEAD = 2 + 1 + 1 + 19 + 1 + 1;
+
+    private final WritableByteChannel channel;
+    private final OutputFormat format;
+    private final int accountWidth;
+    /**
+     * Reused for every record; drained to the channel whenever the next record might not fit.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * Scratch space for rendering digits in reverse order.
+     */
+    private final byte[] digits = new byte[20];
+
+    /**
+     * Creates a writer with the default buffer size and account column width.
+     * @param channel Destination channel
+     * @param format Record layout
+     */
+    public AccountStateWriter(WritableByteChannel channel, OutputFormat format) {
+        this(channel, format, DEFAULT_BUFFER_SIZE, DEFAULT_ACCOUNT_WIDTH);
+    }
+
+    /**
+     * Creates a writer.
+     * @param channel Destination channel
+     * @param format Record layout
+     * @param bufferSize Size of the reusable buffer in bytes
+     * @param accountWidth Width of the account number column for {@link OutputFormat#FIXED_WIDTH}
+     */
+    public AccountStateWriter(WritableByteChannel channel, OutputFormat format, int bufferSize, int accountWidth) {
+        if (bufferSize < Math.max(LLVAR_MAX_LENGTH, accountWidth) + MAX_FIXED_RECORD_OVERHEAD + BALANCE_WIDTH) {
+            throw new IllegalArgumentException(String.format("Buffer size %d too small for a single record", bufferSize));
+        }
+        this.channel = channel;
+        this.format = format;
+        this.accountWidth = accountWidth;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Encodes the non-zero accounts of a processor, matching the contents of
+     * {@link TransactionProcessor#getNonZeroAccountsSorted()}, and flushes the output.
+     *
+     * @param processor The processor whose accounts are written
+     * @return Number of records written
+     * @throws IOException if the channel cannot be written
+     */
+    public long writeNonZeroAccounts(TransactionProcessor processor) throws IOException {
+        long[] written = new long[1];
+        try {
+            processor.forEachAccount(account -> {
+                if (account.getBalanceInCents() != 0) {
+                    try {
+                        write(account.getAccountNumber(), account.getBalanceInCents());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    written[0]++;
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        flush();
+        return written[0];
+    }
+
+    /**
+     * Encodes one account record into the buffer, draining it to the channel first if it is nearly full.
+     * @param accountNumber The account number
+     * @param balanceInCents The balance in cents
+     * @throws IOException if the channel cannot be written
+     */
+    public void write(String accountNumber, long balanceInCents) throws IOException {
+        if (buffer.remaining() < accountNumber.length() + accountWidth + MAX_FIXED_RECORD_OVERHEAD + BALANCE_WIDTH) {
+            drain();
+        }
+        switch (format) {
+            case CSV -> {
+                putAscii(accountNumber);
+                buffer.put((byte) ',');
+                putDecimal(balanceInCents, 0);
+            }
+            case FIXED_WIDTH -> {
+                if (accountNumber.length() > accountWidth) {
+                    throw new IllegalArgumentException(String.format("Account number %s exceeds column width %d", accountNumber, accountWidth));
+                }
+                putAscii(accountNumber);
+                pad(accountWidth - accountNumber.length());
+                putDecimal(balanceInCents, BALANCE_WIDTH);
+            }
+            case LLVAR -> {
+                if (accountNumber.length() > LLVAR_MAX_LENGTH || balanceInCents < 0 || balanceInCents > LLVAR_MAX_AMOUNT) {
+                    throw new IllegalArgumentException(String.format("Account %s with balance %d cannot be encoded as LLVAR", accountNumber, balanceInCents));
+                }
+                putZeroPadded(accountNumber.length(), 2);
+                putAscii(accountNumber);
+                putZeroPadded(balanceInCents, LLVAR_AMOUNT_WIDTH);
+            }
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes any buffered records to the channel.
+     * @throws IOException if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Copies an account number into the buffer, replacing non-ASCII characters with '?'.
+     */
+    private void putAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            buffer.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+    }
+
+    private void pad(int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) ' ');
+        }
+    }
+
+    /**
+     * Renders cents as dollars with exactly two decimals, right-aligned to {@code width} (0 for no padding).
+     */
+    private void putDecimal(long cents, int width) {
+        boolean negative = cents < 0;
+        // Render from the least significant digit; negating Long.MIN_VALUE is avoided by working on negatives
+        long remaining = negative ? cents : -cents;
+        int count = 0;
+        for (int i = 0; i < 2; i++) {
+            digits[count++] = (byte) ('0' - (remaining % 10));
+            remaining /= 10;
+        }
+        do {
+            digits[count++] = (byte) ('0' - (remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+
+        int length = count + 1 + (negative ? 1 : 0);
+        pad(width - length);
+        if (negative) {
+            buffer.put((byte) '-');
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            buffer.put(digits[i]);
+            if (i == 2) {
+                buffer.put((byte) '.');
+            }
+        }
+    }
+
+    /**
+     * Renders a non-negative value as exactly {@code width} zero-padded digits.
+     */
+    private void putZeroPadded(long value, int width) {
+        long remaining = value;
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + (remaining % 10));
+            remaining /= 10;
+        }
+        if (remaining != 0) {
+            throw new IllegalArgumentException(String.format("Value %d does not fit in %d digits", value, width));
+        }
+        buffer.put(digits, 0, width);
+    }
+}
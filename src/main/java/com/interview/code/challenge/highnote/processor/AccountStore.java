@@ -0,0 +1,54 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.function.Consumer;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Storage for the accounts of a {@link TransactionProcessor}.
+ * The processor mutates the accounts it gets from the store in place and reports every change
+ * through {@link #markDirty(BankAccount)}, so stores that persist accounts know what to write back.
+ */
+public interface AccountStore {
+    /**
+     * Returns the account with the given number.
+     * @param accountNumber The account number to look up
+     * @return The account, or null if it does not exist
+     */
+    BankAccount get(String accountNumber);
+
+    /**
+     * Returns the account with the given number for reading only, without counting as a use of it.
+     * Stores with a bounded cache neither load the account into the cache nor change its eviction order.
+     * @param accountNumber The account number to look up
+     * @return The account, or null if it does not exist; must be treated as read-only
+     */
+    default BankAccount peek(String accountNumber) {
+        return get(accountNumber);
+    }
+
+    /**
+     * Adds a new account to the store.
+     * @param account The account to add
+     */
+    void put(BankAccount account);
+
+    /**
+     * Records that an account obtained from {@link #get(String)} was changed in place.
+     * @param account The changed account
+     */
+    default void markDirty(BankAccount account) {
+    }
+
+    /**
+     * Visits every account in the store. Accounts passed to the action must be treated as read-only.
+     * @param action Action applied to each account
+     */
+    void forEach(Consumer<BankAccount> action);
+
+    /**
+     * Persists any changes the store is still holding in memory.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,371 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsResponse;
+import com.interview.code.challenge.highnote.model.TransactionOutcome;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Non-blocking front end for a single long-lived book of accounts.
+ * Callers submit batches and get a future back immediately; a dispatcher thread coalesces queued
+ * submissions into one internal batch, applies it with a single pass over the processor and builds
+ * one response for all of them, listing the accounts the batch changed. Coalescing stops once the
+ * batch reaches the size cap or the oldest submission in it has waited for the latency target,
+ * whichever comes first.
+ *
+ * With adaptive batching on, the size cap is further limited to the number of messages the processor
+ * is measured to apply within one latency target, so a low-latency feed gets small batches while a
+ * bulk feed with a generous target gets large ones. Both bounds can be changed while running, and
+ * end-to-end latency from submission to completion is recorded for percentile reporting.
+ *
+ * Per-message results are also published to any subscribers of {@link #getOutcomes()}.
+ */
+@Slf4j
+public class AsyncTransactionProcessorService implements AutoCloseable {
+    /**
+     * Default maximum number of messages applied as one internal batch.
+     */
+    static final int DEFAULT_MAX_BATCH_SIZE = 4096;
+    /**
+     * Default time the oldest submission may wait for others to join its batch.
+     */
+    static final long DEFAULT_MAX_DELAY_MICROS = 2000;
+    /**
+     * Smallest batch size adaptive batching will shrink to.
+     */
+    static final int MIN_ADAPTIVE_BATCH_SIZE = 16;
+    /**
+     * Batches smaller than this are too noisy to update the measured apply cost.
+     */
+    private static final int MIN_MEASURED_BATCH_SIZE = 8;
+    /**
+     * Weight of the newest sample in the moving average of apply cost.
+     */
+    private static final double APPLY_COST_SMOOTHING = 0.2;
+
+    private final TransactionProcessor processor;
+    private volatile int maxBatchSize;
+    private volatile long maxDelayNanos;
+    private volatile boolean adaptiveBatching = true;
+    /**
+     * Moving average of nanoseconds the processor takes to apply one message; 0 until the first measurement.
+     */
+    private volatile double applyNanosPerMessage;
+    /**
+     * End-to-end latency of each submission, from submit to completion.
+     */
+    private final LatencyHistogram latency;
+    /**
+     * Submissions waiting for the dispatcher, in arrival order.
+     */
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final SubmissionPublisher<TransactionOutcome> outcomes = new SubmissionPublisher<>();
+    /**
+     * Guards accepting submissions: id assignment and enqueueing happen together, and never after close.
+     */
+    private final Object submitLock = new Object();
+    /**
+     * Id of the next accepted submission; guarded by {@link #submitLock}.
+     */
+    private long nextSubmissionId;
+    private final Thread dispatcher;
+    /**
+     * Number of internal batches applied, for observing how well submissions coalesce.
+     */
+    private final AtomicLong appliedBatchCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a service over an empty in-memory book with the default batch size and latency target.
+     */
+    public AsyncTransactionProcessorService() {
+        this(new TransactionProcessor(), DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY_MICROS);
+    }
+
+    /**
+     * Creates a service over the given processor.
+     * The processor is owned by the dispatcher thread from now on and must not be used by anyone else.
+     *
+     * @param processor The book submissions are applied to
+     * @param maxBatchSize Maximum number of messages applied as one internal batch
+     * @param maxDelayMicros Time the oldest submission may wait for others to join its batch; 0 only takes what is already queued
+     */
+    public AsyncTransactionProcessorService(TransactionProcessor processor, int maxBatchSize, long maxDelayMicros) {
+        this(processor, maxBatchSize, maxDelayMicros, new LatencyHistogram());
+    }
+
+    /**
+     * Creates a service recording latencies into the given histogram, so tests can inspect or seed it.
+     */
+    AsyncTransactionProcessorService(TransactionProcessor processor, int maxBatchSize, long maxDelayMicros, LatencyHistogram latency) {
+        this.processor = processor;
+        processor.setChangeTracking(true);
+        this.latency = latency;
+        setMaxBatchSize(maxBatchSize);
+        setMaxDelayMicros(maxDelayMicros);
+        this.dispatcher = new Thread(this::runDispatcher, "transaction-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues a batch of transaction messages without waiting for it to be applied.
+     * Submissions are applied in the order they are accepted.
+     *
+     * @param request ProcessTransactionsRequest which contains an array of transactions
+     * @return Future completed with copies of the accounts changed by the internal batch containing this
+     *         submission, as of the end of that batch; changes by other submissions coalesced into the same batch
+     *         are included, and accounts emptied by it are listed with a zero balance. Folding the responses in
+     *         submission order over the book the service started with reproduces the processor's accounts.
+     */
+    public CompletableFuture<ProcessTransactionsResponse> submit(ProcessTransactionsRequest request) {
+        String[] messages = Objects.isNull(request.getTransactions()) ? new String[0] : request.getTransactions();
+        CompletableFuture<ProcessTransactionsResponse> result = new CompletableFuture<>();
+        synchronized (submitLock) {
+            if (closed) {
+                throw new IllegalStateException("Service is closed, rejecting submission");
+            }
+            // Ids follow queue order because both are assigned under the same lock
+            queue.add(new Submission(nextSubmissionId++, messages, System.nanoTime(), result));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a publisher of per-message outcomes, in submission order.
+     * Outcomes are only built while someone is subscribed. A subscriber that falls behind by more than
+     * its buffer slows the dispatcher down rather than losing outcomes.
+     *
+     * @return Publisher of TransactionOutcome
+     */
+    public Flow.Publisher<TransactionOutcome> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Changes the maximum number of messages applied as one internal batch. Takes effect from the next batch.
+     * @param maxBatchSize New size cap
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException(String.format("Max batch size must be positive: %d", maxBatchSize));
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Changes the time the oldest submission may wait for others to join its batch. Takes effect from the next batch.
+     * @param maxDelayMicros New latency target in microseconds; 0 only takes what is already queued
+     */
+    public void setMaxDelayMicros(long maxDelayMicros) {
+        if (maxDelayMicros < 0) {
+            throw new IllegalArgumentException(String.format("Max delay must not be negative: %d", maxDelayMicros));
+        }
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+    }
+
+    /**
+     * Turns sizing batches from the measured apply cost on or off.
+     * @param adaptiveBatching true to limit batches to what can be applied within the latency target
+     */
+    public void setAdaptiveBatching(boolean adaptiveBatching) {
+        this.adaptiveBatching = adaptiveBatching;
+    }
+
+    /**
+     * Returns the size cap the dispatcher currently uses for a batch.
+     * With adaptive batching this is the number of messages the processor is measured to apply within
+     * the latency target, bounded by the configured maximum; otherwise it is the configured maximum.
+     *
+     * @return Effective batch size cap
+     */
+    public int getTargetBatchSize() {
+        int cap = maxBatchSize;
+        double nanosPerMessage = applyNanosPerMessage;
+        if (!adaptiveBatching || nanosPerMessage <= 0 || maxDelayNanos == 0) {
+            return cap;
+        }
+        long affordable = (long) (maxDelayNanos / nanosPerMessage);
+        return (int) Math.max(Math.min(MIN_ADAPTIVE_BATCH_SIZE, cap), Math.min(cap, affordable));
+    }
+
+    /**
+     * Returns an end-to-end latency percentile over all submissions completed since the last reset.
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in microseconds, within about 6% of the true value
+     */
+    public long getLatencyPercentileMicros(double percentile) {
+        return TimeUnit.NANOSECONDS.toMicros(latency.percentile(percentile));
+    }
+
+    /**
+     * Returns the median end-to-end latency.
+     * @return p50 latency in microseconds
+     */
+    public long getP50LatencyMicros() {
+        return getLatencyPercentileMicros(50);
+    }
+
+    /**
+     * Returns the 99th percentile end-to-end latency.
+     * @return p99 latency in microseconds
+     */
+    public long getP99LatencyMicros() {
+        return getLatencyPercentileMicros(99);
+    }
+
+    /**
+     * Discards recorded latencies, e.g. after changing the batching knobs.
+     */
+    public void resetLatency() {
+        latency.reset();
+    }
+
+    /**
+     * Returns the number of internal batches applied so far.
+     * @return Applied batch count
+     */
+    public long getAppliedBatchCount() {
+        return appliedBatchCount.get();
+    }
+
+    /**
+     * Stops the dispatcher. Submissions that have not been applied are cancelled and outcome subscribers are completed.
+     */
+    @Override
+    public void close() {
+        // Once the flag is set under the lock no submission can be queued, so the drain below sees them all
+        synchronized (submitLock) {
+            closed = true;
+        }
+        dispatcher.interrupt();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Submission submission;
+        while (Objects.nonNull(submission = queue.poll())) {
+            submission.result().completeExceptionally(new CancellationException("Service closed"));
+        }
+        outcomes.close();
+    }
+
+    /**
+     * Dispatcher loop: wait for a submission, coalesce more behind it, apply them together.
+     */
+    private void runDispatcher() {
+        List<Submission> batch = new ArrayList<>();
+        while (!closed) {
+            Submission first;
+            try {
+                first = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            batch.add(first);
+            int size = first.messages().length;
+            int targetBatchSize = getTargetBatchSize();
+            long deadline = first.enqueuedNanos() + maxDelayNanos;
+            while (size < targetBatchSize) {
+                Submission next = queue.poll();
+                if (Objects.isNull(next)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    try {
+                        next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        // Closing: apply what was already taken, then exit at the loop check
+                        break;
+                    }
+                    if (Objects.isNull(next)) {
+                        break;
+                    }
+                }
+                batch.add(next);
+                size += next.messages().length;
+            }
+            applyBatch(batch, size);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Applies coalesced submissions as one pass over the processor and completes their futures.
+     */
+    private void applyBatch(List<Submission> batch, int size) {
+        String[] messages = new String[size];
+        int offset = 0;
+        for (Submission submission : batch) {
+            System.arraycopy(submission.messages(), 0, messages, offset, submission.messages().length);
+            offset += submission.messages().length;
+        }
+        boolean[] applied = new boolean[size];
+
+        ProcessTransactionsResponse response;
+        try {
+            long started = System.nanoTime();
+            processor.applyMessages(messages, 0, size, applied);
+            recordApplyCost(System.nanoTime() - started, size);
+            // Only the accounts this batch touched are copied, so the response grows with the batch, not the book
+            response = ProcessTransactionsResponse.builder().bankAccounts(processor.drainChangedAccounts()).build();
+        } catch (RuntimeException e) {
+            log.error("Coalesced batch of {} submissions failed", batch.size(), e);
+            batch.forEach(submission -> submission.result().completeExceptionally(e));
+            return;
+        }
+        appliedBatchCount.incrementAndGet();
+
+        if (outcomes.hasSubscribers()) {
+            offset = 0;
+            for (Submission submission : batch) {
+                for (int i = 0; i < submission.messages().length; i++, offset++) {
+                    outcomes.submit(TransactionOutcome.builder()
+                            .submissionId(submission.id())
+                            .index(i)
+                            .message(messages[offset])
+                            .applied(applied[offset])
+                            .build());
+                }
+            }
+        }
+        long completed = System.nanoTime();
+        for (Submission submission : batch) {
+            latency.record(completed - submission.enqueuedNanos());
+            submission.result().complete(response);
+        }
+    }
+
+    /**
+     * Folds one batch's apply time into the moving average used for adaptive batch sizing.
+     */
+    private void recordApplyCost(long nanos, int size) {
+        if (size < MIN_MEASURED_BATCH_SIZE) {
+            return;
+        }
+        double sample = (double) nanos / size;
+        double previous = applyNanosPerMessage;
+        applyNanosPerMessage = previous <= 0 ? sample : previous + APPLY_COST_SMOOTHING * (sample - previous);
+    }
+
+    /**
+     * A submitted batch together with the future reporting its result.
+     */
+    private record Submission(long id, String[] messages, long enqueuedNanos, CompletableFuture<ProcessTransactionsResponse> result) {
+    }
+}
@@ -0,0 +1,218 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes end-of-day account state in a compact columnar layout.
+ * Accounts are sorted by account number and cut into chunks; worker threads encode chunks in
+ * parallel (see {@link ColumnarCodec}) while the calling thread writes finished chunks in order.
+ * Only a bounded number of encoded chunks are held in memory at a time, and a processor's book is
+ * gathered one chunk at a time rather than copied whole.
+ *
+ * File layout: magic, version, account count, then one frame per chunk with its account count,
+ * payload length and payload. {@link ColumnarAccountLoader} reads it back.
+ */
+@Slf4j
+public class ColumnarAccountExporter {
+    /**
+     * File magic, "HNCA".
+     */
+    static final int MAGIC = 0x484E4341;
+    static final byte VERSION = 2;
+    /**
+     * Size of the file header: magic, version and account count.
+     */
+    static final int HEADER_SIZE = Integer.BYTES + 1 + Long.BYTES;
+    /**
+     * Size of each chunk frame header: account count and payload length.
+     */
+    static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    /**
+     * Largest chunk payload a loader accepts, so a corrupt frame length cannot trigger a huge allocation.
+     */
+    static final int MAX_FRAME_BYTES = 64 * 1024 * 1024;
+    /**
+     * Default number of accounts per chunk.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * Creates an exporter with one encoding thread per available processor and the default chunk size.
+     */
+    public ColumnarAccountExporter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an exporter.
+     * @param threads Number of threads encoding chunks
+     * @param chunkSize Number of accounts per chunk
+     */
+    public ColumnarAccountExporter(int threads, int chunkSize) {
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException(String.format("Thread count and chunk size must be positive: %d, %d", threads, chunkSize));
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Exports every account of a processor, including zero-balance ones.
+     *
+     * Only the account numbers are collected and sorted up front. The accounts themselves are then looked up
+     * one chunk at a time in key order, without counting as uses of the store, so a book that lives on disk is
+     * read once, is never materialised in memory as a whole, and leaves the store's cache as it was.
+     *
+     * @param processor The processor whose accounts are exported; must not be applying transactions meanwhile
+     * @param channel Destination of the export
+     * @return Number of accounts written
+     * @throws IOException if the channel cannot be written
+     */
+    public long export(TransactionProcessor processor, WritableByteChannel channel) throws IOException {
+        List<String> numbers = new ArrayList<>();
+        processor.forEachAccount(account -> numbers.add(account.getAccountNumber()));
+        String[] keys = numbers.toArray(new String[0]);
+        numbers.clear();
+        Arrays.parallelSort(keys);
+
+        try (ChunkWriter writer = new ChunkWriter(channel, keys.length)) {
+            for (int from = 0; from < keys.length; from += chunkSize) {
+                BankAccount[] chunk = new BankAccount[Math.min(chunkSize, keys.length - from)];
+                for (int i = 0; i < chunk.length; i++) {
+                    chunk[i] = processor.peekAccount(keys[from + i]);
+                    if (Objects.isNull(chunk[i])) {
+                        throw new IllegalStateException(String.format("Accounts changed during export: account %s disappeared", keys[from + i]));
+                    }
+                }
+                writer.write(chunk);
+            }
+            writer.finish();
+        }
+        return keys.length;
+    }
+
+    /**
+     * Exports the given accounts.
+     * @param accounts The accounts to export, in any order
+     * @param channel Destination of the export
+     * @return Number of accounts written
+     * @throws IOException if the channel cannot be written
+     */
+    public long export(Collection<BankAccount> accounts, WritableByteChannel channel) throws IOException {
+        BankAccount[] sorted = accounts.toArray(new BankAccount[0]);
+        Arrays.parallelSort(sorted, Comparator.comparing(BankAccount::getAccountNumber));
+        try (ChunkWriter writer = new ChunkWriter(channel, sorted.length)) {
+            writer.write(sorted);
+            writer.finish();
+        }
+        return sorted.length;
+    }
+
+    /**
+     * Writes the file header, then encodes sorted runs of accounts on the worker threads and writes their
+     * chunk frames in order. Each run passed to {@link #write(BankAccount[])} must sort after the previous one.
+     */
+    private final class ChunkWriter implements AutoCloseable {
+        private final WritableByteChannel channel;
+        private final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        private final Deque<Integer> counts = new ArrayDeque<>();
+        private final long accountCount;
+        private long bytes = HEADER_SIZE;
+
+        private ChunkWriter(WritableByteChannel channel, long accountCount) throws IOException {
+            this.channel = channel;
+            this.accountCount = accountCount;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).put(VERSION).putLong(accountCount).flip();
+            writeFully(channel, header);
+        }
+
+        private void write(BankAccount[] sorted) throws IOException {
+            for (int from = 0; from < sorted.length; from += chunkSize) {
+                int start = from;
+                int end = Math.min(sorted.length, from + chunkSize);
+                inFlight.add(executor.submit(() -> ColumnarCodec.encode(sorted, start, end)));
+                counts.add(end - start);
+                // Keep a few chunks per thread in flight so encoding never waits on writing, or the reverse
+                if (inFlight.size() >= 2 * threads) {
+                    writeNext();
+                }
+            }
+        }
+
+        private void finish() throws IOException {
+            while (!inFlight.isEmpty()) {
+                writeNext();
+            }
+            log.info("Exported {} accounts in {} bytes", accountCount, bytes);
+        }
+
+        private void writeNext() throws IOException {
+            int count = counts.poll();
+            byte[] payload = await(inFlight.poll());
+            if (payload.length > MAX_FRAME_BYTES) {
+                throw new IllegalArgumentException(String.format(
+                        "Chunk of %d accounts encodes to %d bytes, over the %d byte frame limit; use a smaller chunk size",
+                        count, payload.length, MAX_FRAME_BYTES));
+            }
+            ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+            frameHeader.putInt(count).putInt(payload.length).flip();
+            writeFully(channel, frameHeader);
+            writeFully(channel, ByteBuffer.wrap(payload));
+            bytes += FRAME_HEADER_SIZE + payload.length;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Waits for a chunk task, surfacing its failure as it would have been thrown on the calling thread.
+     */
+    static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Chunk task failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Reads an export written by {@link ColumnarAccountExporter}.
+ * The calling thread reads chunk frames in order while worker threads decode them in parallel.
+ * Frames longer than {@link ColumnarAccountExporter#MAX_FRAME_BYTES} and payloads that do not decode to
+ * exactly the accounts their frame announces are rejected as corrupt.
+ */
+public class ColumnarAccountLoader {
+    private final int threads;
+
+    /**
+     * Creates a loader with one decoding thread per available processor.
+     */
+    public ColumnarAccountLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a loader.
+     * @param threads Number of threads decoding chunks
+     */
+    public ColumnarAccountLoader(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException(String.format("Thread count must be positive: %d", threads));
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Loads every account in an export.
+     * @param channel Source of the export
+     * @return The accounts sorted by account number
+     * @throws IOException if the channel cannot be read or does not hold a complete, well-formed export
+     */
+    public List<BankAccount> load(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = readFully(channel, ColumnarAccountExporter.HEADER_SIZE);
+        if (header.getInt() != ColumnarAccountExporter.MAGIC || header.get() != ColumnarAccountExporter.VERSION) {
+            throw new IOException("Not a columnar account export");
+        }
+        long accountCount = header.getLong();
+        if (accountCount == 0) {
+            return Collections.emptyList();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<BankAccount[]>> chunks = new ArrayList<>();
+            for (long remaining = accountCount; remaining > 0; ) {
+                ByteBuffer frameHeader = readFully(channel, ColumnarAccountExporter.FRAME_HEADER_SIZE);
+                int count = frameHeader.getInt();
+                int length = frameHeader.getInt();
+                // Every account takes at least its two prefix varints, so the length also bounds the count
+                if (count <= 0 || count > remaining || length < 2L * count || length > ColumnarAccountExporter.MAX_FRAME_BYTES) {
+                    throw new IOException(String.format("Corrupt chunk frame %d: %d accounts, %d bytes", chunks.size(), count, length));
+                }
+                byte[] payload = readFully(channel, length).array();
+                int chunk = chunks.size();
+                chunks.add(executor.submit(() -> decode(chunk, payload, count)));
+                remaining -= count;
+            }
+
+            List<BankAccount> accounts = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, accountCount));
+            for (Future<BankAccount[]> chunk : chunks) {
+                Collections.addAll(accounts, ColumnarAccountExporter.await(chunk));
+            }
+            return accounts;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decodes one chunk, reporting any malformed payload as a corrupt export rather than a decoder failure.
+     */
+    private static BankAccount[] decode(int chunk, byte[] payload, int count) throws IOException {
+        try {
+            return ColumnarCodec.decode(payload, count);
+        } catch (RuntimeException e) {
+            throw new IOException(String.format("Corrupt chunk %d: %s", chunk, e.getMessage()), e);
+        }
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException(String.format("Export ended %d bytes early", buffer.remaining()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
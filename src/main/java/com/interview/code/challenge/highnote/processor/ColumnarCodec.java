@@ -0,0 +1,270 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Encodes and decodes one chunk of the columnar account export.
+ *
+ * A chunk holds accounts sorted by account number, stored column by column:
+ * <ul>
+ *   <li>account numbers, each as a varint length of the prefix shared with the previous number,
+ *       a varint suffix length and the suffix bytes;</li>
+ *   <li>balance, total outgoing and limit epoch, each as a frame-of-reference column:
+ *       the column minimum, the bit width of the largest offset from it, then every offset bit-packed.</li>
+ * </ul>
+ * Held amounts are not exported: the holds behind them stay with the processor that placed them,
+ * so decoded accounts have nothing held.
+ * Every chunk starts its prefix coding afresh, so chunks encode and decode independently.
+ */
+final class ColumnarCodec {
+    /**
+     * Number of long columns per chunk.
+     */
+    private static final int LONG_COLUMNS = 3;
+
+    private ColumnarCodec() {
+    }
+
+    /**
+     * Encodes a slice of sorted accounts into a chunk payload.
+     * @param accounts Accounts sorted by account number
+     * @param from Index of the first account in the chunk
+     * @param to Index after the last account in the chunk
+     * @return The encoded payload
+     */
+    static byte[] encode(BankAccount[] accounts, int from, int to) {
+        int count = to - from;
+        ByteSink sink = new ByteSink(count * 16 + 64);
+
+        byte[] previous = new byte[0];
+        for (int i = from; i < to; i++) {
+            byte[] current = accounts[i].getAccountNumber().getBytes(StandardCharsets.UTF_8);
+            int shared = Arrays.mismatch(previous, current);
+            if (shared < 0) {
+                shared = current.length;
+            }
+            sink.writeVarint(shared);
+            sink.writeVarint(current.length - shared);
+            sink.write(current, shared, current.length - shared);
+            previous = current;
+        }
+
+        long[] column = new long[count];
+        for (int field = 0; field < LONG_COLUMNS; field++) {
+            for (int i = 0; i < count; i++) {
+                column[i] = longField(accounts[from + i], field);
+            }
+            writeFrameOfReference(sink, column);
+        }
+        return sink.toByteArray();
+    }
+
+    /**
+     * Decodes a chunk payload.
+     * @param payload The encoded chunk
+     * @param count Number of accounts in the chunk
+     * @return The accounts, in the order they were written
+     * @throws IllegalArgumentException if the payload is not a well-formed chunk of that many accounts;
+     *         a truncated payload may also surface as an {@link IndexOutOfBoundsException}
+     */
+    static BankAccount[] decode(byte[] payload, int count) {
+        int[] position = {0};
+        String[] accountNumbers = new String[count];
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int shared = readVarint(payload, position);
+            int suffixLength = readVarint(payload, position);
+            if (shared < 0 || shared > previous.length || suffixLength < 0 || suffixLength > payload.length - position[0]) {
+                throw new IllegalArgumentException(String.format("Account number %d runs past its chunk", i));
+            }
+            byte[] current = Arrays.copyOf(previous, shared + suffixLength);
+            System.arraycopy(payload, position[0], current, shared, suffixLength);
+            position[0] += suffixLength;
+            accountNumbers[i] = new String(current, StandardCharsets.UTF_8);
+            previous = current;
+        }
+
+        long[][] columns = new long[LONG_COLUMNS][];
+        for (int field = 0; field < LONG_COLUMNS; field++) {
+            columns[field] = readFrameOfReference(payload, position, count);
+        }
+        if (position[0] != payload.length) {
+            throw new IllegalArgumentException(String.format("Chunk has %d bytes left over", payload.length - position[0]));
+        }
+
+        BankAccount[] accounts = new BankAccount[count];
+        for (int i = 0; i < count; i++) {
+            accounts[i] = BankAccount.builder()
+                    .accountNumber(accountNumbers[i])
+                    .balanceInCents(columns[0][i])
+                    .totalOutInCents(columns[1][i])
+                    .limitEpoch(columns[2][i])
+                    .build();
+        }
+        return accounts;
+    }
+
+    private static long longField(BankAccount account, int field) {
+        return switch (field) {
+            case 0 -> account.getBalanceInCents();
+            case 1 -> account.getTotalOutInCents();
+            default -> account.getLimitEpoch();
+        };
+    }
+
+    /**
+     * Writes the column minimum, the bit width of the largest offset and the offsets packed at that width.
+     * A column of equal values takes nine bytes however long it is.
+     */
+    private static void writeFrameOfReference(ByteSink sink, long[] values) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long value : values) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        if (values.length == 0) {
+            min = 0;
+            max = 0;
+        }
+        // Offsets are unsigned, so a spread wider than Long.MAX_VALUE still fits in 64 bits
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+        sink.writeLong(min);
+        sink.writeByte(bits);
+
+        long buffer = 0;
+        int buffered = 0;
+        for (long value : values) {
+            long offset = value - min;
+            for (int written = 0; written < bits; ) {
+                int take = Math.min(bits - written, Long.SIZE - buffered);
+                long part = (offset >>> written) & mask(take);
+                buffer |= part << buffered;
+                buffered += take;
+                written += take;
+                if (buffered == Long.SIZE) {
+                    sink.writeLong(buffer);
+                    buffer = 0;
+                    buffered = 0;
+                }
+            }
+        }
+        for (int shift = 0; shift < buffered; shift += Byte.SIZE) {
+            sink.writeByte((int) (buffer >>> shift));
+        }
+    }
+
+    private static long[] readFrameOfReference(byte[] payload, int[] position, int count) {
+        long min = readLong(payload, position[0]);
+        int bits = payload[position[0] + Long.BYTES] & 0xFF;
+        position[0] += Long.BYTES + 1;
+        if (bits > Long.SIZE) {
+            throw new IllegalArgumentException(String.format("Column bit width %d is over %d", bits, Long.SIZE));
+        }
+        if ((long) count * bits > (long) (payload.length - position[0]) * Byte.SIZE) {
+            throw new IllegalArgumentException(String.format("Column of %d values at %d bits runs past the chunk", count, bits));
+        }
+
+        long[] values = new long[count];
+        long bitPosition = (long) position[0] * Byte.SIZE;
+        for (int i = 0; i < count; i++) {
+            long offset = 0;
+            for (int read = 0; read < bits; ) {
+                int byteIndex = (int) (bitPosition >>> 3);
+                int bitInByte = (int) (bitPosition & 7);
+                int take = Math.min(bits - read, Byte.SIZE - bitInByte);
+                long part = ((payload[byteIndex] & 0xFF) >>> bitInByte) & mask(take);
+                offset |= part << read;
+                read += take;
+                bitPosition += take;
+            }
+            values[i] = min + offset;
+        }
+        position[0] += (int) (((long) count * bits + 7) / Byte.SIZE);
+        return values;
+    }
+
+    private static long mask(int bits) {
+        return bits == Long.SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    private static int readVarint(byte[] payload, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Varint is longer than five bytes");
+            }
+            byte b = payload[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Reads a little-endian long, matching {@link ByteSink#writeLong(long)}.
+     */
+    private static long readLong(byte[] payload, int offset) {
+        long value = 0;
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            value = (value << Byte.SIZE) | (payload[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Growable byte array used to build one chunk.
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        private ByteSink(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void write(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        private void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * Writes a long in little-endian order so packed words and trailing bytes share one bit order.
+         */
+        private void writeLong(long value) {
+            ensure(Long.BYTES);
+            for (int i = 0; i < Long.BYTES; i++) {
+                bytes[size++] = (byte) (value >>> (i * Byte.SIZE));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pins the calling thread to a set of CPUs on Linux.
+ *
+ * The JDK has no affinity API, so this looks up the thread's kernel id through {@code /proc/thread-self}
+ * and runs {@code taskset} (util-linux) on it. Pinning is best effort: where either is missing the
+ * thread keeps running unpinned and the failure is logged.
+ */
+@Slf4j
+final class CpuAffinity {
+    /**
+     * CPU list in taskset's format, e.g. "3", "0-7" or "0,2,4-6".
+     */
+    private static final Pattern CPU_LIST = Pattern.compile("\\d+(-\\d+)?(,\\d+(-\\d+)?)*");
+    private static final Path THREAD_SELF = Path.of("/proc/thread-self");
+
+    private CpuAffinity() {
+    }
+
+    /**
+     * Checks that a CPU list is in taskset's format.
+     * @param cpuList The CPU list
+     * @throws IllegalArgumentException if it is not
+     */
+    static void validate(String cpuList) {
+        if (Objects.isNull(cpuList) || !CPU_LIST.matcher(cpuList).matches()) {
+            throw new IllegalArgumentException(String.format("Invalid CPU list: %s", cpuList));
+        }
+    }
+
+    /**
+     * Restricts the calling thread to the given CPUs.
+     * @param cpuList CPUs in taskset's format
+     * @return true if the thread was pinned
+     */
+    static boolean pinCurrentThread(String cpuList) {
+        validate(cpuList);
+        String thread = Thread.currentThread().getName();
+        try {
+            // The link reads "<pid>/task/<tid>"
+            Path self = Files.readSymbolicLink(THREAD_SELF);
+            String tid = self.getFileName().toString();
+            Process taskset = new ProcessBuilder("taskset", "-p", "-c", cpuList, tid)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            int exitCode = taskset.waitFor();
+            if (exitCode != 0) {
+                log.warn("Could not pin thread {} to CPUs {}: taskset exited with {}", thread, cpuList, exitCode);
+                return false;
+            }
+            log.info("Pinned thread {} (tid {}) to CPUs {}", thread, tid, cpuList);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Could not pin thread {} to CPUs {}: {}", thread, cpuList, e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk hash table of account records with fixed-size slots and linear probing.
+ * Each slot holds one account: a used flag, the account number, balance, total outgoing, limit epoch and held amount.
+ * The file starts with a header recording its format version, slot size and slot count; files whose header
+ * does not match this layout are refused rather than read at the wrong stride.
+ * Held amounts are only kept for the life of one session and are zeroed when an existing file is opened.
+ * The slot count is fixed when the file is created; not thread-safe.
+ */
+@Slf4j
+class DiskAccountFile implements Closeable {
+    /**
+     * Longest account number a slot can hold; covers every two-digit LLVAR length.
+     */
+    static final int MAX_ACCOUNT_NUMBER_BYTES = 100;
+    /**
+     * File magic, "HNAF".
+     */
+    static final int MAGIC = 0x484E4146;
+    /**
+     * Format version; version 1 had no header and 128-byte slots.
+     */
+    static final int VERSION = 2;
+    /**
+     * Size of the header: magic, version, slot size and slot count, padded so slots start on a 64-byte boundary.
+     */
+    static final int HEADER_SIZE = 64;
+    /**
+     * Size of one slot: flag, key length, key bytes and four longs take 134 bytes. Rounded up to 160 so three
+     * more long fields fit without changing the stride; adding a field still requires a new version.
+     */
+    static final int SLOT_SIZE = 160;
+    private static final int KEY_OFFSET = 2;
+    private static final int BALANCE_OFFSET = KEY_OFFSET + MAX_ACCOUNT_NUMBER_BYTES;
+    private static final int TOTAL_OUT_OFFSET = BALANCE_OFFSET + Long.BYTES;
+    private static final int EPOCH_OFFSET = TOTAL_OUT_OFFSET + Long.BYTES;
+    private static final int HELD_OFFSET = EPOCH_OFFSET + Long.BYTES;
+    private static final byte USED = 1;
+    /**
+     * Slots read per call when scanning the whole file.
+     */
+    private static final int SCAN_SLOTS = 512;
+
+    private final FileChannel channel;
+    private final long slotCount;
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+    private long size;
+
+    /**
+     * Opens an existing account file or creates one with the given number of slots.
+     * @param path Location of the file
+     * @param slotCount Slots to allocate for a new file; rounded up to a power of two
+     * @throws IOException if the file cannot be opened or read, or is not an account file of this version
+     */
+    DiskAccountFile(Path path, long slotCount) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                long slots = Long.highestOneBit(Math.max(2, slotCount) - 1) << 1;
+                // Extend the file to its full size; unwritten regions read back as empty slots
+                channel.write(ByteBuffer.allocate(1), HEADER_SIZE + slots * SLOT_SIZE - 1);
+                writeHeader(slots);
+                this.slotCount = slots;
+            } else {
+                this.slotCount = readHeader(path);
+                openExisting();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Counts the stored records and zeroes every held amount left by a previous session.
+     * Holds live only in the memory of the processor that placed them, so after a restart no hold id is left
+     * to capture, release or expire the amount; keeping it would reserve those funds forever.
+     */
+    private void openExisting() throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_SLOTS * SLOT_SIZE);
+        ByteBuffer zero = ByteBuffer.allocate(Long.BYTES);
+        long released = 0;
+        for (long first = 0; first < slotCount; first += SCAN_SLOTS) {
+            chunk.clear();
+            long chunkPosition = HEADER_SIZE + first * SLOT_SIZE;
+            readFully(chunk, chunkPosition);
+            for (int offset = 0; offset < chunk.limit(); offset += SLOT_SIZE) {
+                if (chunk.get(offset) != USED) {
+                    continue;
+                }
+                size++;
+                if (chunk.getLong(offset + HELD_OFFSET) != 0) {
+                    zero.clear();
+                    channel.write(zero, chunkPosition + offset + HELD_OFFSET);
+                    released++;
+                }
+            }
+        }
+        if (released > 0) {
+            log.info("Released stale holds on {} accounts from a previous session", released);
+        }
+    }
+
+    private void writeHeader(long slots) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(SLOT_SIZE).putLong(slots).clear();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    /**
+     * Checks the header of an existing file against this layout.
+     * @return The file's slot count
+     */
+    private long readHeader(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+            throw new IOException(String.format("Not an account file: %s", path));
+        }
+        int version = header.getInt(4);
+        int slotSize = header.getInt(8);
+        long slots = header.getLong(12);
+        if (version != VERSION || slotSize != SLOT_SIZE) {
+            throw new IOException(String.format("Unsupported account file %s: version %d with %d byte slots, expected version %d with %d byte slots",
+                    path, version, slotSize, VERSION, SLOT_SIZE));
+        }
+        if (slots <= 0 || Long.bitCount(slots) != 1 || channel.size() != HEADER_SIZE + slots * SLOT_SIZE) {
+            throw new IOException(String.format("Corrupt account file %s: %d slots in %d bytes", path, slots, channel.size()));
+        }
+        return slots;
+    }
+
+    /**
+     * Reads an account record.
+     * @param accountNumber The account number to look up
+     * @return A new BankAccount holding the stored state, or null if the account is not in the file
+     * @throws IOException if the file cannot be read
+     */
+    BankAccount read(String accountNumber) throws IOException {
+        probe(encode(accountNumber));
+        return slot.get(0) == USED ? decode(slot) : null;
+    }
+
+    /**
+     * Writes a batch of account records, inserting new ones and overwriting existing ones.
+     * Records are written in order of their home slot so the batch turns into mostly sequential I/O.
+     *
+     * @param accounts The accounts to write
+     * @throws IOException if the file cannot be written
+     */
+    void writeAll(Collection<BankAccount> accounts) throws IOException {
+        byte[][] keys = new byte[accounts.size()][];
+        BankAccount[] ordered = accounts.toArray(new BankAccount[0]);
+        Integer[] order = new Integer[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            keys[i] = encode(ordered[i].getAccountNumber());
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> homeSlot(keys[i])));
+
+        for (int i : order) {
+            long index = probe(keys[i]);
+            if (slot.get(0) != USED) {
+                if (size + 1 > getCapacity()) {
+                    throw new IllegalStateException(String.format("Account file is full: %d slots", slotCount));
+                }
+                size++;
+            }
+            encode(ordered[i], keys[i], slot);
+            writeSlot(index);
+        }
+    }
+
+    /**
+     * Visits every record in slot order, decoding each into a new BankAccount.
+     * @param action Action applied to each stored account
+     * @throws IOException if the file cannot be read
+     */
+    void forEach(Consumer<BankAccount> action) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_SLOTS * SLOT_SIZE);
+        for (long first = 0; first < slotCount; first += SCAN_SLOTS) {
+            chunk.clear();
+            readFully(chunk, HEADER_SIZE + first * SLOT_SIZE);
+            for (int offset = 0; offset < chunk.limit(); offset += SLOT_SIZE) {
+                if (chunk.get(offset) == USED) {
+                    action.accept(decode(chunk.slice(offset, SLOT_SIZE)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of stored accounts.
+     * @return Record count
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the most records the file can hold; one slot always stays empty so probing terminates.
+     * @return Record capacity
+     */
+    long getCapacity() {
+        return slotCount - 1;
+    }
+
+    /**
+     * Forces written records to the storage device.
+     * @throws IOException if the file cannot be synced
+     */
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Finds the slot holding the key, or the empty slot where it would be inserted.
+     * Leaves that slot's contents in {@link #slot}.
+     */
+    private long probe(byte[] key) throws IOException {
+        long mask = slotCount - 1;
+        long index = homeSlot(key);
+        for (long attempts = 0; attempts < slotCount; attempts++) {
+            readSlot(index);
+            if (slot.get(0) != USED || keyEquals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        throw new IllegalStateException(String.format("Account file is full: %d slots", slotCount));
+    }
+
+    private long homeSlot(byte[] key) {
+        return mix(Arrays.hashCode(key)) & (slotCount - 1);
+    }
+
+    private boolean keyEquals(byte[] key) {
+        if ((slot.get(1) & 0xFF) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (slot.get(KEY_OFFSET + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readSlot(long index) throws IOException {
+        slot.clear();
+        readFully(slot, HEADER_SIZE + index * SLOT_SIZE);
+    }
+
+    private void writeSlot(long index) throws IOException {
+        slot.clear();
+        long position = HEADER_SIZE + index * SLOT_SIZE;
+        while (slot.hasRemaining()) {
+            position += channel.write(slot, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long remainingInFile = channel.size() - position;
+        if (remainingInFile < buffer.remaining()) {
+            buffer.limit((int) Math.max(0, remainingInFile));
+        }
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    private static byte[] encode(String accountNumber) {
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_ACCOUNT_NUMBER_BYTES) {
+            throw new IllegalArgumentException(String.format("Account number too long for account file: %s", accountNumber));
+        }
+        return key;
+    }
+
+    private static void encode(BankAccount account, byte[] key, ByteBuffer target) {
+        target.clear();
+        // Clear the previous contents, including padding, so every written slot is fully determined
+        target.put(0, new byte[SLOT_SIZE]);
+        target.put(0, USED);
+        target.put(1, (byte) key.length);
+        target.put(KEY_OFFSET, key);
+        target.putLong(BALANCE_OFFSET, account.getBalanceInCents());
+        target.putLong(TOTAL_OUT_OFFSET, account.getTotalOutInCents());
+        target.putLong(EPOCH_OFFSET, account.getLimitEpoch());
+        target.putLong(HELD_OFFSET, account.getHeldInCents());
+    }
+
+    private static BankAccount decode(ByteBuffer source) {
+        byte[] key = new byte[source.get(1) & 0xFF];
+        source.get(KEY_OFFSET, key);
+        return BankAccount.builder()
+                .accountNumber(new String(key, StandardCharsets.UTF_8))
+                .balanceInCents(source.getLong(BALANCE_OFFSET))
+                .totalOutInCents(source.getLong(TOTAL_OUT_OFFSET))
+                .limitEpoch(source.getLong(EPOCH_OFFSET))
+                .heldInCents(source.getLong(HELD_OFFSET))
+                .build();
+    }
+
+    private static long mix(int hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
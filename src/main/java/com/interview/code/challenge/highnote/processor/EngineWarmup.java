@@ -0,0 +1,134 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.interview.code.challenge.highnote.model.OutputFormat;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+
+/**
+ * Exercises the engine's hot paths on a throwaway book: raw message application through the cursor
+ * (including hot-account deposit runs and holds), {@link com.interview.code.challenge.highnote.model.Transaction}
+ * parsing and processing, quarantining of malformed messages, and {@link TransactionProcessorService}
+ * streaming its result in every output format.
+ *
+ * One round loads and initializes every class a real run needs, which is what an AppCDS training run
+ * must see; more rounds also give the JIT compiler time to compile the hot methods before real input arrives.
+ */
+public final class EngineWarmup {
+    /**
+     * Accounts used by the synthetic workload.
+     */
+    private static final int ACCOUNTS = 64;
+    /**
+     * Hold clock step applied each round; longer than the default hold lifetime so expiry runs too.
+     */
+    private static final long HOLD_CLOCK_STEP = TransactionProcessor.DEFAULT_HOLD_TTL_SECONDS + 1;
+
+    /**
+     * Channel that accepts and drops all bytes.
+     */
+    private static final WritableByteChannel DISCARD = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer source) {
+            int written = source.remaining();
+            source.position(source.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Malformed messages closing the workload, so the quarantine path is loaded as well.
+     */
+    private static final String[] MALFORMED = {"", "9999", "10100", "1010" + llvar(account(1)) + "00000X0100"};
+
+    private EngineWarmup() {
+    }
+
+    /**
+     * Runs the warmup workload.
+     * @param rounds Number of passes over the synthetic workload
+     * @return Number of messages applied, so callers can report warmup throughput
+     */
+    public static long run(int rounds) {
+        String[] messages = workload();
+        // The service logs every quarantined message, so it only gets the well-formed part of the workload
+        String[] wellFormed = Arrays.copyOf(messages, messages.length - MALFORMED.length);
+        ProcessTransactionsRequest request = ProcessTransactionsRequest.builder().transactions(wellFormed).build();
+        TransactionProcessorService service = new TransactionProcessorService();
+        long applied = 0;
+        for (int round = 0; round < rounds; round++) {
+            TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+            processor.processMessages(messages);
+            processor.processTransactions(processor.parseTransaction(messages));
+            processor.advanceHoldClock(HOLD_CLOCK_STEP);
+            processor.rollLimitWindow();
+            processor.getTopAccountsByBalance(10);
+            // The application's own entry point, so everything it loads on the way to the output is covered too
+            for (OutputFormat format : OutputFormat.values()) {
+                try {
+                    service.processTransactions(request, DISCARD, format, () -> { });
+                } catch (IOException e) {
+                    throw new IllegalStateException("Discarding channel failed", e);
+                }
+            }
+            applied += 2L * messages.length + (long) OutputFormat.values().length * wellFormed.length;
+        }
+        return applied;
+    }
+
+    /**
+     * Builds a deterministic mix of every message type, with repeated deposits into one account so the
+     * hot-account path is taken, plus a few malformed messages.
+     */
+    static String[] workload() {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            messages.add("1010" + llvar(account(i)) + amount(50_000 + i));
+        }
+        for (int i = 0; i < 4 * ACCOUNTS; i++) {
+            messages.add("1010" + llvar(account(0)) + amount(100 + i));
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String account = account(i);
+            String holdId = "h" + i;
+            messages.add("1020" + llvar(account) + amount(1_000 + i));
+            messages.add("2010" + llvar(account) + llvar(account((i + 1) % ACCOUNTS)) + amount(2_000 + i));
+            messages.add("3010" + llvar(account) + llvar(holdId) + amount(3_000));
+            if (i % 3 == 0) {
+                messages.add("3020" + llvar(account) + llvar(holdId) + amount(2_500));
+                messages.add("3040" + llvar(account) + llvar(holdId) + amount(500));
+            } else if (i % 3 == 1) {
+                messages.add("3030" + llvar(account) + llvar(holdId) + amount(0));
+            }
+        }
+        Collections.addAll(messages, MALFORMED);
+        return messages.toArray(new String[0]);
+    }
+
+    private static String account(int index) {
+        return String.valueOf(7_000_000 + index);
+    }
+
+    private static String llvar(String value) {
+        return String.format("%02d%s", value.length(), value);
+    }
+
+    private static String amount(long cents) {
+        return String.format("%010d", cents);
+    }
+}
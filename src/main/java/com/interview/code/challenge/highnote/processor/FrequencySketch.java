@@ -0,0 +1,70 @@
+package com.interview.code.challenge.highnote.processor;
+
+/**
+ * Fixed-size count-min sketch estimating how often keys have been seen recently.
+ * Each key increments one counter in each of four rows; the estimate is the smallest of the four.
+ * All counters are halved once a sample period of increments has been recorded, so the
+ * estimates follow the current workload instead of growing forever.
+ */
+final class FrequencySketch {
+    /**
+     * Number of independent counter rows.
+     */
+    private static final int DEPTH = 4;
+    /**
+     * Per-row multipliers used to derive independent indexes from one hash.
+     */
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+
+    private final int[] counters;
+    private final int widthMask;
+    private final int samplePeriod;
+    private int additions;
+
+    /**
+     * Creates a sketch.
+     * @param width Counters per row; rounded up to a power of two
+     * @param samplePeriod Increments after which all counters are halved
+     */
+    FrequencySketch(int width, int samplePeriod) {
+        int rowWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.counters = new int[DEPTH * rowWidth];
+        this.widthMask = rowWidth - 1;
+        this.samplePeriod = samplePeriod;
+    }
+
+    /**
+     * Records one occurrence of a key.
+     * @param hash The key's hash code
+     * @return The key's estimated frequency after this occurrence
+     */
+    int increment(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (counters[index] < Integer.MAX_VALUE) {
+                counters[index]++;
+            }
+            estimate = Math.min(estimate, counters[index]);
+        }
+        if (++additions >= samplePeriod) {
+            age();
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so older observations fade out.
+     */
+    private void age() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        additions = 0;
+    }
+
+    private int indexOf(int hash, int row) {
+        int mixed = (hash ^ (hash >>> 16)) * SEEDS[row];
+        return row * (widthMask + 1) + ((mixed >>> 8) & widthMask);
+    }
+}
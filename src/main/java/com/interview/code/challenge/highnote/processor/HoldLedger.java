@@ -0,0 +1,231 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Ledger of authorization holds keyed by account and hold id.
+ * A hold is pending until it is captured, released or expires. A captured hold is kept for a while
+ * so it can still be reversed, then it expires as well.
+ *
+ * Expiry uses a timing wheel: each hold sits in the bucket of its expiry time, and advancing the
+ * clock only visits the buckets passed since the last advance, so the cost depends on the number of
+ * holds due rather than on the number of holds outstanding. Holds due more than one wheel turn away
+ * stay in their bucket until a later turn. Not thread-safe.
+ */
+final class HoldLedger {
+    /**
+     * Seconds covered by one bucket, as a bit count (64 seconds).
+     */
+    private static final int BUCKET_SECONDS_BITS = 6;
+    /**
+     * Number of buckets; one turn of the wheel covers about three days.
+     */
+    private static final int BUCKET_COUNT = 4096;
+
+    /**
+     * One hold and its progress.
+     */
+    static final class Hold {
+        private final String accountNumber;
+        private final String holdId;
+        private final long amountInCents;
+        private long capturedInCents;
+        private boolean captured;
+        private long expiresAt;
+        /**
+         * Cleared once the hold leaves the ledger, so stale wheel entries are skipped.
+         */
+        private boolean active = true;
+
+        private Hold(String accountNumber, String holdId, long amountInCents, long expiresAt) {
+            this.accountNumber = accountNumber;
+            this.holdId = holdId;
+            this.amountInCents = amountInCents;
+            this.expiresAt = expiresAt;
+        }
+
+        String getAccountNumber() {
+            return accountNumber;
+        }
+
+        String getHoldId() {
+            return holdId;
+        }
+
+        long getAmountInCents() {
+            return amountInCents;
+        }
+
+        /**
+         * Returns the captured amount not yet reversed.
+         */
+        long getCapturedInCents() {
+            return capturedInCents;
+        }
+
+        boolean isCaptured() {
+            return captured;
+        }
+    }
+
+    private final Map<String, Hold> holds = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Hold>[] buckets = new ArrayDeque[BUCKET_COUNT];
+    /**
+     * Time of the last advance in seconds.
+     */
+    private long now;
+    private int pendingCount;
+
+    /**
+     * Returns a hold that is pending or captured.
+     * @param accountNumber The account holding the hold
+     * @param holdId The hold id, unique per account
+     * @return The hold, or null if none is outstanding
+     */
+    Hold get(String accountNumber, String holdId) {
+        return holds.get(key(accountNumber, holdId));
+    }
+
+    /**
+     * Records a new pending hold.
+     * @param accountNumber The account holding the hold
+     * @param holdId The hold id, unique per account
+     * @param amountInCents The reserved amount
+     * @param expiresAt Time in seconds at which the hold lapses if not captured or released
+     * @return The new hold, or null if a hold with this id is already outstanding on the account
+     */
+    Hold place(String accountNumber, String holdId, long amountInCents, long expiresAt) {
+        String key = key(accountNumber, holdId);
+        if (holds.containsKey(key)) {
+            return null;
+        }
+        Hold hold = new Hold(accountNumber, holdId, amountInCents, expiresAt);
+        holds.put(key, hold);
+        pendingCount++;
+        schedule(hold);
+        return hold;
+    }
+
+    /**
+     * Marks a pending hold captured and keeps it until the given time for reversals.
+     * @param hold The pending hold
+     * @param capturedInCents The captured amount
+     * @param reversibleUntil Time in seconds after which the capture can no longer be reversed
+     */
+    void capture(Hold hold, long capturedInCents, long reversibleUntil) {
+        hold.captured = true;
+        hold.capturedInCents = capturedInCents;
+        hold.expiresAt = reversibleUntil;
+        pendingCount--;
+        schedule(hold);
+    }
+
+    /**
+     * Records a reversal against a captured hold, dropping it once fully reversed.
+     * @param hold The captured hold
+     * @param amountInCents The reversed amount, at most the captured amount left
+     */
+    void reverse(Hold hold, long amountInCents) {
+        hold.capturedInCents -= amountInCents;
+        if (hold.capturedInCents == 0) {
+            remove(hold);
+        }
+    }
+
+    /**
+     * Drops a hold from the ledger, e.g. when it is released.
+     * @param hold The hold to drop
+     */
+    void remove(Hold hold) {
+        if (holds.remove(key(hold.accountNumber, hold.holdId)) == hold) {
+            hold.active = false;
+            if (!hold.captured) {
+                pendingCount--;
+            }
+        }
+    }
+
+    /**
+     * Moves the clock forward and drops every hold that is due, reporting each one.
+     * @param time New time in seconds; earlier times are ignored
+     * @param onExpired Called for each dropped hold, before it leaves the ledger
+     */
+    void advance(long time, Consumer<Hold> onExpired) {
+        if (time <= now) {
+            return;
+        }
+        long fromBucket = now >> BUCKET_SECONDS_BITS;
+        long toBucket = time >> BUCKET_SECONDS_BITS;
+        now = time;
+        // One full turn visits every bucket; more would only revisit them
+        long last = Math.min(toBucket, fromBucket + BUCKET_COUNT - 1);
+        for (long bucket = fromBucket; bucket <= last; bucket++) {
+            expireBucket((int) (bucket & (BUCKET_COUNT - 1)), onExpired);
+        }
+    }
+
+    /**
+     * Returns the current time of the ledger clock.
+     * @return Time in seconds
+     */
+    long getTime() {
+        return now;
+    }
+
+    /**
+     * Returns the number of holds still reserving balance.
+     * @return Pending hold count
+     */
+    int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Returns the number of holds in the ledger, pending or captured.
+     * @return Outstanding hold count
+     */
+    int size() {
+        return holds.size();
+    }
+
+    private void expireBucket(int index, Consumer<Hold> onExpired) {
+        ArrayDeque<Hold> bucket = buckets[index];
+        if (Objects.isNull(bucket)) {
+            return;
+        }
+        for (Iterator<Hold> it = bucket.iterator(); it.hasNext(); ) {
+            Hold hold = it.next();
+            if (!hold.active || bucketOf(hold.expiresAt) != index) {
+                // Left the ledger, or was rescheduled into another bucket on capture
+                it.remove();
+            } else if (hold.expiresAt <= now) {
+                it.remove();
+                onExpired.accept(hold);
+                remove(hold);
+            }
+        }
+    }
+
+    private void schedule(Hold hold) {
+        int index = bucketOf(hold.expiresAt);
+        if (Objects.isNull(buckets[index])) {
+            buckets[index] = new ArrayDeque<>();
+        }
+        buckets[index].add(hold);
+    }
+
+    private static int bucketOf(long time) {
+        return (int) ((time >> BUCKET_SECONDS_BITS) & (BUCKET_COUNT - 1));
+    }
+
+    private static String key(String accountNumber, String holdId) {
+        // Length prefix keeps ids containing separators from colliding across accounts
+        return accountNumber.length() + ":" + accountNumber + holdId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Keeps every account resident in a hash map. Default store of {@link TransactionProcessor}.
+ */
+public class InMemoryAccountStore implements AccountStore {
+    /**
+     * Map of account numbers to BankAccount objects.
+     */
+    private final Map<String, BankAccount> accounts = new HashMap<>();
+
+    @Override
+    public BankAccount get(String accountNumber) {
+        return accounts.get(accountNumber);
+    }
+
+    @Override
+    public void put(BankAccount account) {
+        accounts.put(account.getAccountNumber(), account);
+    }
+
+    @Override
+    public void forEach(Consumer<BankAccount> action) {
+        accounts.values().forEach(action);
+    }
+}
@@ -0,0 +1,97 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size log-linear histogram of latencies in nanoseconds.
+ * Every power-of-two range is split into 16 equal buckets, so any reported percentile is within
+ * 1/16 (about 6%) of the true value while the whole histogram stays under 8 KB.
+ * Recording is safe from one thread while others read percentiles.
+ */
+final class LatencyHistogram {
+    /**
+     * Number of sub-buckets per power of two, as a bit count.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records one latency sample.
+     * @param nanos Latency in nanoseconds; negative values are recorded as zero
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * Returns the latency at or below which the given share of samples fall.
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound of the bucket holding the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100: %s", percentile));
+        }
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return upperBound(index);
+            }
+        }
+        return upperBound(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     * @return Sample count
+     */
+    long count() {
+        long total = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            total += counts.get(index);
+        }
+        return total;
+    }
+
+    /**
+     * Discards all recorded samples.
+     */
+    void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0);
+        }
+    }
+
+    /**
+     * Values below 16 get one bucket each; above that, the top bit picks the range and the
+     * next four bits pick the sub-bucket.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowest = (1L << exponent) + subBucket * width;
+        return lowest + width - 1;
+    }
+}
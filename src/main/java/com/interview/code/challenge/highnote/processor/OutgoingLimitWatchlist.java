@@ -0,0 +1,167 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+/**
+ * Index of accounts that are close to their total outgoing limit, bucketed by remaining headroom.
+ * Only accounts whose headroom is below the watch threshold are tracked; every other account can
+ * still accept any outgoing transaction that passes the per-transaction limits.
+ * The index is kept up to date as an account's total outgoing changes, which lets the processor
+ * reject outgoing transactions that cannot succeed before resolving the account.
+ */
+public class OutgoingLimitWatchlist {
+    /**
+     * Width of each headroom bucket in cents ($10.00).
+     */
+    private static final long BUCKET_WIDTH_CENTS = 1000;
+
+    /**
+     * Accounts with less headroom than this are watched.
+     */
+    private final long watchThresholdInCents;
+    /**
+     * Remaining headroom in cents of every watched account.
+     */
+    private Map<String, Long> headroomByAccount;
+    /**
+     * Watched accounts grouped by headroom; bucket {@code i} holds headroom in [i * width, (i + 1) * width).
+     */
+    private List<Set<String>> buckets;
+    /**
+     * Watched accounts with no headroom left at all.
+     */
+    private Set<String> exhausted;
+
+    /**
+     * Creates a watchlist tracking accounts that can no longer accept a maximum-sized outgoing transaction.
+     */
+    public OutgoingLimitWatchlist() {
+        this(Math.max(BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS, BankAccount.MAX_TRANSFER_PER_TRANSACTION_CENTS));
+    }
+
+    /**
+     * Creates a watchlist tracking accounts whose headroom is below the given threshold.
+     * @param watchThresholdInCents Headroom in cents below which an account is watched
+     */
+    public OutgoingLimitWatchlist(long watchThresholdInCents) {
+        if (watchThresholdInCents <= 0) {
+            throw new IllegalArgumentException(String.format("Watch threshold must be positive: %d", watchThresholdInCents));
+        }
+        this.watchThresholdInCents = watchThresholdInCents;
+        reset();
+    }
+
+    /**
+     * Updates the position of an account after its total outgoing changed.
+     * @param accountNumber The account that changed
+     * @param totalOutInCents The account's new total outgoing in cents
+     */
+    void onTotalOutChanged(String accountNumber, long totalOutInCents) {
+        long headroomInCents = Math.max(0, BankAccount.MAX_TOTAL_OUT_CENTS - totalOutInCents);
+        Long previousHeadroomInCents = headroomInCents < watchThresholdInCents
+                ? headroomByAccount.put(accountNumber, headroomInCents)
+                : headroomByAccount.remove(accountNumber);
+
+        if (Objects.nonNull(previousHeadroomInCents)) {
+            buckets.get(bucketOf(previousHeadroomInCents)).remove(accountNumber);
+            exhausted.remove(accountNumber);
+        }
+        if (headroomInCents < watchThresholdInCents) {
+            buckets.get(bucketOf(headroomInCents)).add(accountNumber);
+            if (headroomInCents == 0) {
+                exhausted.add(accountNumber);
+            }
+        }
+    }
+
+    /**
+     * Forgets every watched account, e.g. when outgoing totals start over.
+     */
+    void reset() {
+        int bucketCount = bucketOf(watchThresholdInCents - 1) + 1;
+        this.headroomByAccount = new HashMap<>();
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.exhausted = new HashSet<>();
+    }
+
+    /**
+     * Returns whether an outgoing transaction of the given amount would exceed the account's headroom.
+     * @param accountNumber The source account
+     * @param amountInCents The requested outgoing amount in cents
+     * @return true if the transaction is certain to be rejected by the outgoing limit
+     */
+    public boolean isDoomed(String accountNumber, long amountInCents) {
+        Long headroomInCents = headroomByAccount.get(accountNumber);
+        return Objects.nonNull(headroomInCents) && amountInCents > headroomInCents;
+    }
+
+    /**
+     * Returns the remaining outgoing headroom of a watched account.
+     * @param accountNumber The account to look up
+     * @return Headroom in cents, or empty if the account is not close to its limit
+     */
+    public OptionalLong getHeadroomInCents(String accountNumber) {
+        Long headroomInCents = headroomByAccount.get(accountNumber);
+        return Objects.isNull(headroomInCents) ? OptionalLong.empty() : OptionalLong.of(headroomInCents);
+    }
+
+    /**
+     * Returns the accounts that have used their entire outgoing limit.
+     * @return Read-only view of exhausted account numbers
+     */
+    public Set<String> getExhaustedAccounts() {
+        return Collections.unmodifiableSet(exhausted);
+    }
+
+    /**
+     * Returns the watched accounts with less than the given headroom left.
+     * @param headroomInCents Exclusive upper bound on remaining headroom in cents
+     * @return Account numbers with headroom below the bound
+     */
+    public Set<String> getAccountsWithHeadroomBelow(long headroomInCents) {
+        Set<String> result = new HashSet<>();
+        if (headroomInCents <= 0) {
+            return result;
+        }
+        long bound = Math.min(headroomInCents, watchThresholdInCents);
+        int lastBucket = bucketOf(bound - 1);
+        for (int i = 0; i < lastBucket; i++) {
+            result.addAll(buckets.get(i));
+        }
+        // Business logic: Only the boundary bucket needs an exact headroom check
+        for (String accountNumber : buckets.get(lastBucket)) {
+            if (headroomByAccount.get(accountNumber) < bound) {
+                result.add(accountNumber);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of accounts currently watched.
+     * @return Count of accounts below the watch threshold
+     */
+    public int size() {
+        return headroomByAccount.size();
+    }
+
+    /**
+     * Maps a headroom amount to its bucket index.
+     */
+    private static int bucketOf(long headroomInCents) {
+        return (int) (headroomInCents / BUCKET_WIDTH_CENTS);
+    }
+}
@@ -0,0 +1,798 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.interview.code.challenge.highnote.model.AccountRules;
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.RuleOutcome;
+import com.interview.code.challenge.highnote.model.TransactionType;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies transaction messages on several worker threads, each owning a fixed partition of the accounts.
+ *
+ * Every account is assigned to a worker by the hash of its number and stays there for the life of
+ * the engine. A worker keeps its accounts in its own {@link AccountArena} and is the only thread that
+ * writes them, so account state never moves between cores while transactions run. Workers can be
+ * pinned to CPUs (see {@link CpuAffinity}); a pinned worker allocates its arena's off-heap buffers after
+ * pinning, so on a multi-socket host the numeric account state lands in the memory of the socket that uses
+ * it. Heap data (account numbers, holds) is only placed per node when the JVM runs with {@code -XX:+UseNUMA}.
+ *
+ * The calling thread validates and routes messages in runs of {@link #ROUTE_CHUNK} and hands each run to
+ * the workers as soon as it is routed, so routing the rest of a batch, or the next batch passed to
+ * {@link #submit}, overlaps with applying the runs before it. Each worker applies its messages in input order.
+ * A transfer between partitions is copied to both workers. Before applying a run, each worker scans its share
+ * of it and publishes, for every transfer into its partition, whether the destination account exists at that
+ * point: already opened, or opened by an earlier deposit in the run, exactly as in the sequential engine.
+ * This keeps the check with the partition that owns the account instead of in one global set on the
+ * routing thread. The source account's worker waits for that answer, debits, and publishes the outcome in
+ * a padded status slot; the destination's worker waits for the outcome when it reaches the transfer and
+ * credits the amount if the debit succeeded. Every wait is on a scan or a message earlier in input order,
+ * so workers cannot deadlock.
+ *
+ * A worker failing part way through a run can leave a transfer debited in one partition and never credited
+ * in another. The engine is then marked failed: workers stop applying, and further submissions and reads are
+ * refused with the failure as the cause.
+ *
+ * Account-level rules come from {@link AccountRules}, the same code {@link BankAccount} applies, so results
+ * match applying the same messages one by one with {@link TransactionProcessor} and its built-in handlers.
+ * Handlers registered with {@link TransactionProcessor#registerHandler} act on a processor's own book and
+ * cannot run against the partitions; nor are aggregates or the outgoing limit watchlist kept in this mode.
+ * Not thread-safe: call from one thread at a time.
+ */
+@Slf4j
+public class PartitionedTransactionEngine implements AutoCloseable {
+    /**
+     * Cross-partition transfer states.
+     */
+    private static final int PENDING = 0;
+    private static final int APPLIED = 1;
+    private static final int REJECTED = 2;
+    /**
+     * Destination account states, published next to the transfer state in the same status slot.
+     */
+    private static final int OPENED = 1;
+    private static final int MISSING = 2;
+    private static final int DESTINATION = 1;
+    /**
+     * Ints per cross-partition status slot: one cache line, so workers publishing neighbouring
+     * transfers do not invalidate each other's lines.
+     */
+    private static final int STATUS_STRIDE = 16;
+    /**
+     * Busy-wait iterations on a pending transfer before yielding the CPU.
+     */
+    private static final int SPINS_BEFORE_YIELD = 1024;
+    /**
+     * Messages routed per run; small enough that workers start long before a large batch is fully routed.
+     */
+    static final int ROUTE_CHUNK = 4096;
+
+    private final Worker[] workers;
+    /**
+     * Destination for messages that fail structural pre-validation.
+     */
+    private final QuarantineSink quarantineSink;
+    /**
+     * Flyweight reused to validate and route every message.
+     */
+    private final TransactionCursor cursor = new TransactionCursor();
+    /**
+     * Completion of everything submitted so far; runs complete in submission order.
+     */
+    private CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+    /**
+     * First failure of any worker; once set, the partitions may disagree and nothing more is applied or read.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    /**
+     * Current outgoing limit window.
+     */
+    private long limitEpoch;
+    /**
+     * Lifetime of an uncaptured hold, and of a capture's reversal window, in seconds.
+     */
+    private long holdTtlSeconds = TransactionProcessor.DEFAULT_HOLD_TTL_SECONDS;
+    private long quarantinedCount;
+    private long crossPartitionTransferCount;
+    private boolean closed;
+
+    /**
+     * Creates an engine with one unpinned worker per available processor.
+     */
+    public PartitionedTransactionEngine() {
+        this(Runtime.getRuntime().availableProcessors(), Collections.emptyList());
+    }
+
+    /**
+     * Creates an engine whose messages failing pre-validation are logged and dropped.
+     * @param workerCount Number of workers, and of account partitions
+     * @param workerCpuLists CPUs for each worker in taskset's format (e.g. "0-3"), or empty to leave workers unpinned
+     */
+    public PartitionedTransactionEngine(int workerCount, List<String> workerCpuLists) {
+        this(workerCount, workerCpuLists, (message, status) -> log.warn("Quarantined transaction message ({}): {}", status, message));
+    }
+
+    /**
+     * Creates an engine.
+     * @param workerCount Number of workers, and of account partitions
+     * @param workerCpuLists CPUs for each worker in taskset's format (e.g. "0-3"), or empty to leave workers unpinned
+     * @param quarantineSink Destination for messages that fail structural pre-validation
+     */
+    public PartitionedTransactionEngine(int workerCount, List<String> workerCpuLists, QuarantineSink quarantineSink) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException(String.format("Worker count must be positive: %d", workerCount));
+        }
+        if (!workerCpuLists.isEmpty() && workerCpuLists.size() != workerCount) {
+            throw new IllegalArgumentException(String.format("Expected %d worker CPU lists, got %d", workerCount, workerCpuLists.size()));
+        }
+        workerCpuLists.forEach(CpuAffinity::validate);
+        this.quarantineSink = quarantineSink;
+        this.workers = new Worker[workerCount];
+        CountDownLatch started = new CountDownLatch(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(i, workerCpuLists.isEmpty() ? null : workerCpuLists.get(i), started);
+        }
+        awaitUninterruptibly(started);
+    }
+
+    /**
+     * Validates, routes and applies raw transaction messages, returning once all of them are applied.
+     * @param transactionMessages Array of transaction message strings
+     * @param outcomes If not null, receives at each message index whether that message was applied
+     */
+    public void applyMessages(String[] transactionMessages, boolean[] outcomes) {
+        try {
+            submit(transactionMessages, outcomes).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Partition worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Validates and routes raw transaction messages and hands them to the workers without waiting for them
+     * to be applied, so the caller can route its next batch while the workers apply this one.
+     * Batches are applied in submission order. Reading accounts waits for every submitted batch first.
+     * Dependent actions on the returned future run on a worker thread unless given an executor.
+     *
+     * @param transactionMessages Array of transaction message strings
+     * @param outcomes If not null, receives at each message index whether that message was applied;
+     *                 only read it once the future completes
+     * @return Future completed once every message is applied, or exceptionally if a worker failed
+     * @throws IllegalStateException If the engine is closed, or failed applying an earlier batch
+     */
+    public CompletableFuture<Void> submit(String[] transactionMessages, boolean[] outcomes) {
+        if (closed) {
+            throw new IllegalStateException("Engine is closed");
+        }
+        checkNotFailed();
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (int from = 0; from < transactionMessages.length; from += ROUTE_CHUNK) {
+            Run run = route(transactionMessages, from, Math.min(transactionMessages.length, from + ROUTE_CHUNK), outcomes);
+            for (Worker worker : workers) {
+                worker.runs.add(run);
+            }
+            runs.add(run.completion);
+        }
+        CompletableFuture<Void> submitted = CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0]));
+        // Chained rather than replaced: a submission without runs must not hide batches still being applied
+        inFlight = CompletableFuture.allOf(inFlight, submitted);
+        return submitted;
+    }
+
+    /**
+     * Validates a slice of the messages, quarantining malformed ones, and assigns the rest to workers in input order.
+     * A transfer between partitions is assigned to both workers, the destination's copy marked by
+     * storing the bitwise complement of the message's index in the run.
+     */
+    private Run route(String[] transactionMessages, int from, int to, boolean[] outcomes) {
+        Run run = new Run(from, to - from, workers.length, limitEpoch, holdTtlSeconds, outcomes);
+        int crossTransfers = 0;
+        for (int i = 0; i < run.size; i++) {
+            String message = transactionMessages[from + i];
+            ValidationStatus status = cursor.parse(message);
+            if (status != ValidationStatus.VALID) {
+                quarantinedCount++;
+                quarantineSink.quarantine(message, status);
+                continue;
+            }
+            TransactionType type = cursor.getType();
+            String accountNumber = cursor.getAccountNumber();
+            run.types[i] = type;
+            run.accountNumbers[i] = accountNumber;
+            run.secondFields[i] = cursor.getDestinationAccountNumber();
+            run.amounts[i] = cursor.getAmountInCents();
+
+            int owner = partitionOf(accountNumber);
+            run.assign(owner, i);
+            if (type == TransactionType.TRANSFER) {
+                int destinationOwner = partitionOf(run.secondFields[i]);
+                if (destinationOwner != owner) {
+                    run.crossSlots[i] = crossTransfers++;
+                    run.assign(destinationOwner, ~i);
+                }
+            }
+        }
+        run.crossStatus = new AtomicIntegerArray(crossTransfers * STATUS_STRIDE);
+        crossPartitionTransferCount += crossTransfers;
+        return run;
+    }
+
+    /**
+     * Returns the worker owning an account. Uses the high bits of a multiplicative hash so the
+     * choice is independent of the low bits each arena uses for its own table.
+     */
+    private int partitionOf(String accountNumber) {
+        long mixed = (accountNumber.hashCode() & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        return (int) (((mixed >>> 32) * workers.length) >>> 32);
+    }
+
+    /**
+     * Returns a copy of the account with the specified account number.
+     * @param accountNumber The account number to look up
+     * @return A detached BankAccount, or null if not found
+     */
+    public BankAccount getAccount(String accountNumber) {
+        awaitConsistent();
+        AccountArena arena = workers[partitionOf(accountNumber)].arena;
+        int slot = arena.find(accountNumber);
+        return slot < 0 ? null : arena.toAccount(slot);
+    }
+
+    /**
+     * Returns copies of the accounts with non-zero balances.
+     * @return List of detached BankAccount objects sorted by account number
+     */
+    public List<BankAccount> getNonZeroAccountsSorted() {
+        awaitConsistent();
+        List<BankAccount> nonZero = new ArrayList<>();
+        for (Worker worker : workers) {
+            worker.arena.forEach(account -> {
+                if (account.getBalanceInCents() != 0) {
+                    nonZero.add(account);
+                }
+            });
+        }
+        nonZero.sort(Comparator.comparing(BankAccount::getAccountNumber));
+        return nonZero;
+    }
+
+    /**
+     * Returns the number of accounts across all partitions.
+     * @return Account count
+     */
+    public int getAccountCount() {
+        awaitConsistent();
+        return Arrays.stream(workers).mapToInt(worker -> worker.arena.size()).sum();
+    }
+
+    /**
+     * Returns the number of accounts owned by each worker, to check how evenly the partitions are loaded.
+     * @return Account count per worker
+     */
+    public int[] getAccountCountsByWorker() {
+        awaitConsistent();
+        return Arrays.stream(workers).mapToInt(worker -> worker.arena.size()).toArray();
+    }
+
+    /**
+     * Returns the number of transfers whose accounts belong to different workers.
+     * @return Count of cross-partition transfers
+     */
+    public long getCrossPartitionTransferCount() {
+        return crossPartitionTransferCount;
+    }
+
+    /**
+     * Returns the number of messages rejected by pre-validation.
+     * @return Count of quarantined messages
+     */
+    public long getQuarantinedCount() {
+        return quarantinedCount;
+    }
+
+    /**
+     * Returns the number of workers that were pinned to their CPUs.
+     * @return Pinned worker count; lower than requested if pinning is not supported on this host
+     */
+    public int getPinnedWorkerCount() {
+        return (int) Arrays.stream(workers).filter(worker -> worker.pinned).count();
+    }
+
+    /**
+     * Moves the hold clock forward, releasing uncaptured holds that are due.
+     * @param nowSeconds Current time in seconds; earlier times are ignored
+     */
+    public void advanceHoldClock(long nowSeconds) {
+        awaitConsistent();
+        for (Worker worker : workers) {
+            worker.holdLedger.advance(nowSeconds, hold -> {
+                if (!hold.isCaptured()) {
+                    log.info("Hold {} on account {} expired", hold.getHoldId(), hold.getAccountNumber());
+                    worker.arena.add(worker.arena.find(hold.getAccountNumber()), AccountArena.HELD, -hold.getAmountInCents());
+                }
+            });
+        }
+    }
+
+    /**
+     * Sets how long an uncaptured hold lasts, and how long a capture stays reversible, for holds placed or captured from now on.
+     * @param holdTtlSeconds Lifetime in seconds
+     */
+    public void setHoldTtlSeconds(long holdTtlSeconds) {
+        if (holdTtlSeconds <= 0) {
+            throw new IllegalArgumentException(String.format("Hold lifetime must be positive: %d", holdTtlSeconds));
+        }
+        this.holdTtlSeconds = holdTtlSeconds;
+    }
+
+    /**
+     * Returns the number of holds still reserving balance.
+     * @return Pending hold count
+     */
+    public int getPendingHoldCount() {
+        awaitConsistent();
+        return Arrays.stream(workers).mapToInt(worker -> worker.holdLedger.getPendingCount()).sum();
+    }
+
+    /**
+     * Starts a new outgoing limit window, e.g. at the start of a business day.
+     */
+    public void rollLimitWindow() {
+        limitEpoch++;
+    }
+
+    /**
+     * Stops the workers once every submitted batch is applied. Accounts stay readable unless a worker failed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        awaitIdle();
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Waits until every submitted batch is applied or abandoned. Failures are left to the futures returned by {@link #submit}.
+     */
+    private void awaitIdle() {
+        try {
+            inFlight.join();
+        } catch (CompletionException e) {
+            // Already reported to the submitter
+        }
+    }
+
+    /**
+     * Waits until every submitted batch is applied, so the partitions can be read from the calling thread.
+     * @throws IllegalStateException If a worker failed, leaving the partitions possibly inconsistent
+     */
+    private void awaitConsistent() {
+        awaitIdle();
+        checkNotFailed();
+    }
+
+    private void checkNotFailed() {
+        Throwable cause = failure.get();
+        if (Objects.nonNull(cause)) {
+            throw new IllegalStateException("Partition worker failed; accounts may be inconsistent across partitions", cause);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One routed slice of a batch: the parsed messages, each worker's share of them and the cross-partition
+     * transfer states. Written by the routing thread before the workers receive it, then only read, except
+     * for the outcomes (each index written by one worker) and the transfer states.
+     */
+    private static final class Run {
+        /**
+         * Index of the run's first message in the submitted batch.
+         */
+        private final int from;
+        private final int size;
+        private final TransactionType[] types;
+        private final String[] accountNumbers;
+        private final String[] secondFields;
+        private final long[] amounts;
+        /**
+         * Status slot of each cross-partition transfer, -1 for other messages.
+         */
+        private final int[] crossSlots;
+        private AtomicIntegerArray crossStatus;
+        private final int[][] assigned;
+        private final int[] assignedCounts;
+        private final long limitEpoch;
+        private final long holdTtlSeconds;
+        private final boolean[] outcomes;
+        /**
+         * Workers that have not finished the run yet; the last one completes it.
+         */
+        private final AtomicInteger remainingWorkers;
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private volatile Throwable failure;
+
+        private Run(int from, int size, int workerCount, long limitEpoch, long holdTtlSeconds, boolean[] outcomes) {
+            this.from = from;
+            this.size = size;
+            this.types = new TransactionType[size];
+            this.accountNumbers = new String[size];
+            this.secondFields = new String[size];
+            this.amounts = new long[size];
+            this.crossSlots = new int[size];
+            Arrays.fill(crossSlots, -1);
+            this.assigned = new int[workerCount][Math.max(16, size / workerCount)];
+            this.assignedCounts = new int[workerCount];
+            this.limitEpoch = limitEpoch;
+            this.holdTtlSeconds = holdTtlSeconds;
+            this.outcomes = outcomes;
+            this.remainingWorkers = new AtomicInteger(workerCount);
+        }
+
+        private void assign(int worker, int entry) {
+            if (assignedCounts[worker] == assigned[worker].length) {
+                assigned[worker] = Arrays.copyOf(assigned[worker], assigned[worker].length * 2);
+            }
+            assigned[worker][assignedCounts[worker]++] = entry;
+        }
+
+        private void recordOutcome(int index, boolean applied) {
+            if (Objects.nonNull(outcomes)) {
+                outcomes[from + index] = applied;
+            }
+        }
+
+        /**
+         * Counts a worker out of the run, completing it when the last one is done.
+         */
+        private void workerDone() {
+            if (remainingWorkers.decrementAndGet() == 0) {
+                if (Objects.nonNull(failure)) {
+                    completion.completeExceptionally(failure);
+                } else {
+                    completion.complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * A worker thread and the partition of accounts it owns.
+     */
+    private final class Worker {
+        private final int index;
+        private final Thread thread;
+        private final BlockingQueue<Run> runs = new LinkedBlockingQueue<>();
+        /**
+         * Owned accounts; allocated on the worker thread after pinning.
+         */
+        private AccountArena arena;
+        /**
+         * Holds on owned accounts.
+         */
+        private HoldLedger holdLedger;
+        /**
+         * Accounts a deposit earlier in the run being scanned will open; reused across runs.
+         */
+        private final Set<String> opening = new HashSet<>();
+        private volatile boolean pinned;
+
+        private Worker(int index, String cpuList, CountDownLatch started) {
+            this.index = index;
+            this.thread = new Thread(() -> {
+                if (Objects.nonNull(cpuList)) {
+                    pinned = CpuAffinity.pinCurrentThread(cpuList);
+                }
+                arena = new AccountArena();
+                holdLedger = new HoldLedger();
+                started.countDown();
+                runLoop();
+            }, "partition-worker-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void runLoop() {
+            while (true) {
+                Run run;
+                try {
+                    run = runs.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    // Business logic: Nothing more is applied once any worker failed, the partitions may already disagree
+                    if (Objects.isNull(failure.get())) {
+                        apply(run);
+                    }
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    if (Objects.nonNull(failure.get())) {
+                        run.failure = failure.get();
+                    }
+                    run.workerDone();
+                }
+            }
+        }
+
+        /**
+         * Applies this worker's share of a run in input order.
+         */
+        private void apply(Run run) {
+            resolveDestinations(run);
+            int[] entries = run.assigned[index];
+            for (int k = 0; k < run.assignedCounts[index]; k++) {
+                int entry = entries[k];
+                if (entry < 0) {
+                    creditTransfer(run, ~entry);
+                    continue;
+                }
+                String accountNumber = run.accountNumbers[entry];
+                String secondField = run.secondFields[entry];
+                long amountInCents = run.amounts[entry];
+                boolean applied = switch (run.types[entry]) {
+                    case DEPOSIT -> deposit(accountNumber, amountInCents, run.limitEpoch);
+                    case WITHDRAWAL -> withdraw(accountNumber, amountInCents, run.limitEpoch);
+                    case TRANSFER -> debitTransfer(run, entry);
+                    case HOLD -> hold(accountNumber, secondField, amountInCents, run.holdTtlSeconds);
+                    case CAPTURE -> capture(accountNumber, secondField, amountInCents, run.limitEpoch, run.holdTtlSeconds);
+                    case RELEASE -> release(accountNumber, secondField);
+                    case REVERSAL -> reverse(accountNumber, secondField, amountInCents, run.limitEpoch);
+                };
+                run.recordOutcome(entry, applied);
+            }
+        }
+
+        /**
+         * Publishes, for each cross-partition transfer into this partition, whether its destination exists
+         * when the transfer is reached: it is open already, or an earlier deposit in the run opens it.
+         * Runs before any message of the run is applied, so a source worker waiting on the answer never
+         * waits on this worker's progress through the run.
+         */
+        private void resolveDestinations(Run run) {
+            if (run.crossStatus.length() == 0) {
+                return;
+            }
+            opening.clear();
+            int[] entries = run.assigned[index];
+            for (int k = 0; k < run.assignedCounts[index]; k++) {
+                int entry = entries[k];
+                if (entry >= 0) {
+                    if (run.types[entry] == TransactionType.DEPOSIT && AccountRules.opensAccount(run.amounts[entry])
+                            && arena.find(run.accountNumbers[entry]) < 0) {
+                        opening.add(run.accountNumbers[entry]);
+                    }
+                    continue;
+                }
+                String destinationAccountNumber = run.secondFields[~entry];
+                boolean opened = arena.find(destinationAccountNumber) >= 0 || opening.contains(destinationAccountNumber);
+                run.crossStatus.set(run.crossSlots[~entry] * STATUS_STRIDE + DESTINATION, opened ? OPENED : MISSING);
+            }
+        }
+
+        private boolean deposit(String accountNumber, long amountInCents, long limitEpoch) {
+            // Business logic: Same steps as TransactionProcessor.processDeposit, including creating the account first
+            if (!AccountRules.opensAccount(amountInCents)) {
+                log.warn("Deposit denied for account {}: amount {} exceeds limit", accountNumber, amountInCents);
+                return false;
+            }
+            int slot = arena.find(accountNumber);
+            if (slot < 0) {
+                slot = arena.open(accountNumber, limitEpoch);
+            }
+            if (AccountRules.checkDeposit(amountInCents) != RuleOutcome.ALLOWED) {
+                log.warn("Deposit failed for account: {}", accountNumber);
+                return false;
+            }
+            arena.add(slot, AccountArena.BALANCE, amountInCents);
+            return true;
+        }
+
+        private boolean withdraw(String accountNumber, long amountInCents, long limitEpoch) {
+            int slot = arena.find(accountNumber);
+            if (slot < 0) {
+                log.warn("Withdrawal failed: Account {} does not exist", accountNumber);
+                return false;
+            }
+            if (!debit(slot, amountInCents, BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS, limitEpoch)) {
+                log.warn("Withdrawal failed for account: {}", accountNumber);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Debits a transfer's source account, credits a destination in the same partition,
+         * and publishes the outcome of a cross-partition transfer.
+         */
+        private boolean debitTransfer(Run run, int messageIndex) {
+            String sourceAccountNumber = run.accountNumbers[messageIndex];
+            String destinationAccountNumber = run.secondFields[messageIndex];
+            long amountInCents = run.amounts[messageIndex];
+            int sourceSlot = arena.find(sourceAccountNumber);
+            int crossSlot = run.crossSlots[messageIndex];
+            boolean destinationExists = crossSlot < 0
+                    ? arena.find(destinationAccountNumber) >= 0
+                    : awaitStatus(run, crossSlot * STATUS_STRIDE + DESTINATION, messageIndex) == OPENED;
+            boolean applied = false;
+
+            // Business logic: Same checks, in the same order, as TransactionProcessor.processTransfer
+            if (sourceSlot < 0 || !destinationExists) {
+                log.warn("Transfer failed: Either source account {} or destination account {} does not exist", sourceAccountNumber, destinationAccountNumber);
+            } else if (sourceAccountNumber.equals(destinationAccountNumber)) {
+                log.warn("Transfer failed: Source and destination accounts cannot be the same: {}", sourceAccountNumber);
+            } else if (!debit(sourceSlot, amountInCents, BankAccount.MAX_TRANSFER_PER_TRANSACTION_CENTS, run.limitEpoch)) {
+                log.warn("Transfer failed: Cannot transfer out from source account: {}", sourceAccountNumber);
+            } else {
+                applied = true;
+                if (crossSlot < 0) {
+                    arena.add(arena.find(destinationAccountNumber), AccountArena.BALANCE, amountInCents);
+                }
+            }
+            if (crossSlot >= 0) {
+                run.crossStatus.set(crossSlot * STATUS_STRIDE, applied ? APPLIED : REJECTED);
+            }
+            return applied;
+        }
+
+        /**
+         * Credits the destination of a cross-partition transfer once its source worker has debited it.
+         */
+        private void creditTransfer(Run run, int messageIndex) {
+            if (awaitStatus(run, run.crossSlots[messageIndex] * STATUS_STRIDE, messageIndex) == APPLIED) {
+                arena.add(arena.find(run.secondFields[messageIndex]), AccountArena.BALANCE, run.amounts[messageIndex]);
+            }
+        }
+
+        /**
+         * Spins, then yields, until another worker publishes a cross-partition transfer state.
+         * @return The published state
+         */
+        private int awaitStatus(Run run, int statusIndex, int messageIndex) {
+            int status;
+            for (int spins = 0; (status = run.crossStatus.get(statusIndex)) == PENDING; spins++) {
+                if (Objects.nonNull(failure.get())) {
+                    throw new IllegalStateException(String.format("Abandoning transfer at message %d after another worker failed", run.from + messageIndex));
+                }
+                if (spins < SPINS_BEFORE_YIELD) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return status;
+        }
+
+        private boolean hold(String accountNumber, String holdId, long amountInCents, long holdTtlSeconds) {
+            int slot = arena.find(accountNumber);
+            if (slot < 0) {
+                log.warn("Hold failed: Account {} does not exist", accountNumber);
+                return false;
+            }
+            if (Objects.nonNull(holdLedger.get(accountNumber, holdId))) {
+                log.warn("Hold failed: Hold {} already exists on account {}", holdId, accountNumber);
+                return false;
+            }
+            if (AccountRules.checkHold(amountInCents, available(slot)) != RuleOutcome.ALLOWED) {
+                log.warn("Hold failed for account: {}", accountNumber);
+                return false;
+            }
+            arena.add(slot, AccountArena.HELD, amountInCents);
+            holdLedger.place(accountNumber, holdId, amountInCents, holdLedger.getTime() + holdTtlSeconds);
+            return true;
+        }
+
+        private boolean capture(String accountNumber, String holdId, long amountInCents, long limitEpoch, long holdTtlSeconds) {
+            HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+            if (Objects.isNull(hold) || hold.isCaptured()) {
+                log.warn("Capture failed: No pending hold {} on account {}", holdId, accountNumber);
+                return false;
+            }
+            if (amountInCents <= 0 || amountInCents > hold.getAmountInCents()) {
+                log.warn("Capture failed: amount {} outside hold {} of {} cents on account {}", amountInCents, holdId, hold.getAmountInCents(), accountNumber);
+                return false;
+            }
+            // Business logic: As BankAccount.captureHold, the hold is released and the capture debited; the hold stays if the debit is refused
+            int slot = arena.find(accountNumber);
+            arena.add(slot, AccountArena.HELD, -hold.getAmountInCents());
+            if (!debit(slot, amountInCents, BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS, limitEpoch)) {
+                arena.add(slot, AccountArena.HELD, hold.getAmountInCents());
+                log.warn("Capture failed for account: {}", accountNumber);
+                return false;
+            }
+            holdLedger.capture(hold, amountInCents, holdLedger.getTime() + holdTtlSeconds);
+            return true;
+        }
+
+        private boolean release(String accountNumber, String holdId) {
+            HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+            if (Objects.isNull(hold) || hold.isCaptured()) {
+                log.warn("Release failed: No pending hold {} on account {}", holdId, accountNumber);
+                return false;
+            }
+            arena.add(arena.find(accountNumber), AccountArena.HELD, -hold.getAmountInCents());
+            holdLedger.remove(hold);
+            return true;
+        }
+
+        private boolean reverse(String accountNumber, String holdId, long amountInCents, long limitEpoch) {
+            HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+            if (Objects.isNull(hold) || !hold.isCaptured()) {
+                log.warn("Reversal failed: No captured hold {} on account {}", holdId, accountNumber);
+                return false;
+            }
+            if (amountInCents <= 0 || amountInCents > hold.getCapturedInCents()) {
+                log.warn("Reversal failed: amount {} outside remaining capture {} cents of hold {} on account {}", amountInCents, hold.getCapturedInCents(), holdId, accountNumber);
+                return false;
+            }
+            int slot = arena.find(accountNumber);
+            arena.add(slot, AccountArena.BALANCE, amountInCents);
+            arena.set(slot, AccountArena.TOTAL_OUT, AccountRules.totalOutAfterReversal(
+                    arena.get(slot, AccountArena.TOTAL_OUT), arena.get(slot, AccountArena.LIMIT_EPOCH), limitEpoch, amountInCents));
+            holdLedger.reverse(hold, amountInCents);
+            return true;
+        }
+
+        /**
+         * Debits an outgoing amount of a withdrawal, transfer or capture if {@link AccountRules#checkDebit} allows it.
+         * @return true if the amount was debited
+         */
+        private boolean debit(int slot, long amountInCents, long maxPerTransactionInCents, long limitEpoch) {
+            long totalOutInCents = AccountRules.totalOutInWindow(
+                    arena.get(slot, AccountArena.TOTAL_OUT), arena.get(slot, AccountArena.LIMIT_EPOCH), limitEpoch);
+            if (AccountRules.checkDebit(amountInCents, maxPerTransactionInCents, totalOutInCents, available(slot)) != RuleOutcome.ALLOWED) {
+                return false;
+            }
+            arena.add(slot, AccountArena.BALANCE, -amountInCents);
+            arena.set(slot, AccountArena.TOTAL_OUT, totalOutInCents + amountInCents);
+            arena.set(slot, AccountArena.LIMIT_EPOCH, limitEpoch);
+            return true;
+        }
+
+        private long available(int slot) {
+            return arena.get(slot, AccountArena.BALANCE) - arena.get(slot, AccountArena.HELD);
+        }
+    }
+}
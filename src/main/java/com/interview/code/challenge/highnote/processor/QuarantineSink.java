@@ -0,0 +1,16 @@
+package com.interview.code.challenge.highnote.processor;
+
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+/**
+ * Receives raw transaction messages rejected by pre-validation, together with the reason.
+ */
+@FunctionalInterface
+public interface QuarantineSink {
+    /**
+     * Accepts a message that failed structural validation.
+     * @param message The raw message as received
+     * @param status The reason the message was rejected
+     */
+    void quarantine(String message, ValidationStatus status);
+}
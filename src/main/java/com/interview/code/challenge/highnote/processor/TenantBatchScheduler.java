@@ -0,0 +1,299 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs transaction batches for many independent books (tenants) on a shared pool of worker threads.
+ * Each tenant owns its own {@link TransactionProcessor} and a FIFO queue of submitted batches, so
+ * transactions within a tenant are applied in submission order while different tenants run in parallel.
+ *
+ * Ready tenants sit in per-worker deques. A worker runs a tenant for at most one quantum of
+ * transactions and then requeues it at the tail of its own deque, so a large tenant cannot starve
+ * small ones sharing the worker. Idle workers steal ready tenants from the tail of other workers' deques.
+ */
+@Slf4j
+public class TenantBatchScheduler implements AutoCloseable {
+    /**
+     * Default number of transactions a tenant may apply before yielding its worker.
+     */
+    static final int DEFAULT_QUANTUM = 1024;
+
+    /**
+     * Number of transactions a tenant may apply before yielding its worker.
+     */
+    private final int quantum;
+    /**
+     * Tenants by id, created on first submission.
+     */
+    private final ConcurrentMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    /**
+     * Per-worker deques of tenants that have pending work.
+     */
+    private final List<Deque<Tenant>> readyQueues;
+    /**
+     * One permit per tenant sitting in a ready deque.
+     */
+    private final Semaphore readyPermits = new Semaphore(0);
+    /**
+     * Worker threads, one per ready deque.
+     */
+    private final List<Thread> workers;
+    /**
+     * Set once the scheduler stops accepting work.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a scheduler with one worker per available processor and the default quantum.
+     */
+    public TenantBatchScheduler() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUANTUM);
+    }
+
+    /**
+     * Creates a scheduler with the given number of workers and quantum.
+     * @param workerCount Number of worker threads
+     * @param quantum Number of transactions a tenant may apply before yielding its worker
+     */
+    public TenantBatchScheduler(int workerCount, int quantum) {
+        if (workerCount <= 0 || quantum <= 0) {
+            throw new IllegalArgumentException(String.format("Worker count and quantum must be positive: %d, %d", workerCount, quantum));
+        }
+        this.quantum = quantum;
+        this.readyQueues = new ArrayList<>(workerCount);
+        this.workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            readyQueues.add(new ConcurrentLinkedDeque<>());
+        }
+        for (int i = 0; i < workerCount; i++) {
+            int workerIndex = i;
+            Thread worker = new Thread(() -> runWorker(workerIndex), "tenant-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a batch of transaction messages for a tenant.
+     * Batches of the same tenant are applied in submission order against that tenant's accounts.
+     *
+     * @param tenantId The book the batch belongs to
+     * @param request ProcessTransactionsRequest which contains an array of transactions
+     * @return Future completed with a snapshot of the tenant's non-zero accounts once the batch is applied
+     */
+    public CompletableFuture<ProcessTransactionsResponse> submit(String tenantId, ProcessTransactionsRequest request) {
+        if (closed) {
+            throw new IllegalStateException(String.format("Scheduler is closed, rejecting batch for tenant %s", tenantId));
+        }
+        String[] messages = Objects.isNull(request.getTransactions()) ? new String[0] : request.getTransactions();
+        PendingBatch batch = new PendingBatch(messages, new CompletableFuture<>());
+
+        Tenant tenant = tenants.computeIfAbsent(tenantId, Tenant::new);
+        tenant.pending.add(batch);
+        // close() sets the flag before cancelling pending batches, so a batch added after that sweep sees it here
+        if (closed) {
+            tenant.pending.remove(batch);
+            batch.result().completeExceptionally(new CancellationException("Scheduler closed"));
+            return batch.result;
+        }
+        if (tenant.scheduled.compareAndSet(false, true)) {
+            makeReady(tenant, Math.floorMod(tenantId.hashCode(), readyQueues.size()));
+        }
+        return batch.result;
+    }
+
+    /**
+     * Returns the ids of all tenants seen so far.
+     * @return Read-only view of tenant ids
+     */
+    public Set<String> getTenantIds() {
+        return Collections.unmodifiableSet(tenants.keySet());
+    }
+
+    /**
+     * Returns the processor holding a tenant's accounts.
+     * The processor is not thread-safe; only read it while the tenant has no batches in flight.
+     *
+     * @param tenantId The tenant to look up
+     * @return The tenant's processor, or null if the tenant is unknown
+     */
+    public TransactionProcessor getProcessor(String tenantId) {
+        Tenant tenant = tenants.get(tenantId);
+        return Objects.isNull(tenant) ? null : tenant.processor;
+    }
+
+    /**
+     * Stops the workers. Batches that have not completed are cancelled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        tenants.values().forEach(Tenant::cancelPending);
+    }
+
+    /**
+     * Places a tenant with pending work on a worker's ready deque.
+     */
+    private void makeReady(Tenant tenant, int workerIndex) {
+        readyQueues.get(workerIndex).addLast(tenant);
+        readyPermits.release();
+    }
+
+    /**
+     * Worker loop: take a ready tenant from the own deque or steal one, run it for a quantum, requeue it if needed.
+     */
+    private void runWorker(int workerIndex) {
+        while (!closed) {
+            try {
+                readyPermits.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Tenant tenant = takeOrSteal(workerIndex);
+            if (Objects.isNull(tenant)) {
+                return;
+            }
+            if (tenant.runQuantum(quantum)) {
+                makeReady(tenant, workerIndex);
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest tenant from the worker's own deque, falling back to stealing the newest from another.
+     * A held permit guarantees a tenant is in some deque, so this only spins while another worker is mid-handoff.
+     *
+     * @return A ready tenant, or null if the scheduler closed while searching
+     */
+    private Tenant takeOrSteal(int workerIndex) {
+        while (!closed) {
+            Tenant tenant = readyQueues.get(workerIndex).pollFirst();
+            if (Objects.nonNull(tenant)) {
+                return tenant;
+            }
+            for (int offset = 1; offset < readyQueues.size(); offset++) {
+                tenant = readyQueues.get((workerIndex + offset) % readyQueues.size()).pollLast();
+                if (Objects.nonNull(tenant)) {
+                    return tenant;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    /**
+     * A batch waiting to be applied together with the future reporting its result.
+     */
+    private record PendingBatch(String[] messages, CompletableFuture<ProcessTransactionsResponse> result) {
+    }
+
+    /**
+     * A single book: its accounts, its batch queue and its progress through the current batch.
+     * Only the worker currently running the tenant touches the processor and progress fields.
+     */
+    private static final class Tenant {
+        private final String id;
+        private final TransactionProcessor processor = new TransactionProcessor();
+        private final Queue<PendingBatch> pending = new ConcurrentLinkedQueue<>();
+        /**
+         * True while the tenant is in a ready deque or being run, so it is never scheduled twice.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private PendingBatch current;
+        private int position;
+
+        private Tenant(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Applies up to {@code quantum} transactions from the tenant's pending batches.
+         * @return true if the tenant still has work and must be requeued
+         */
+        private boolean runQuantum(int quantum) {
+            int budget = quantum;
+            while (budget > 0) {
+                if (Objects.isNull(current)) {
+                    current = pending.poll();
+                    position = 0;
+                    if (Objects.isNull(current)) {
+                        break;
+                    }
+                }
+                String[] messages = current.messages();
+                int end = Math.min(messages.length, position + budget);
+                try {
+                    processor.applyMessages(messages, position, end, null);
+                } catch (RuntimeException e) {
+                    log.error("Batch failed for tenant {}", id, e);
+                    current.result().completeExceptionally(e);
+                    current = null;
+                    continue;
+                }
+                budget -= end - position;
+                position = end;
+                if (position == messages.length) {
+                    current.result().complete(snapshot());
+                    current = null;
+                }
+            }
+
+            if (Objects.nonNull(current) || !pending.isEmpty()) {
+                return true;
+            }
+            // Re-check after releasing the flag so a batch submitted concurrently is not stranded
+            scheduled.set(false);
+            return !pending.isEmpty() && scheduled.compareAndSet(false, true);
+        }
+
+        /**
+         * Copies the tenant's non-zero accounts so callers never observe later batches mutating them.
+         */
+        private ProcessTransactionsResponse snapshot() {
+            return ProcessTransactionsResponse.builder().bankAccounts(processor.getNonZeroAccountsSnapshot()).build();
+        }
+
+        /**
+         * Cancels every batch that has not been applied.
+         */
+        private void cancelPending() {
+            if (Objects.nonNull(current)) {
+                current.result().completeExceptionally(new CancellationException("Scheduler closed"));
+            }
+            PendingBatch batch;
+            while (Objects.nonNull(batch = pending.poll())) {
+                batch.result().completeExceptionally(new CancellationException("Scheduler closed"));
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Account store that keeps a bounded working set of accounts in memory in front of an on-disk account file.
+ * Resident accounts are held in least-recently-used order; when the cache is full the coldest account is
+ * evicted. Evicted accounts that changed since they were loaded are buffered and written back to disk in
+ * batches. Misses load the account lazily from disk, so memory is bounded by the active set rather than by
+ * the total number of accounts ever opened.
+ *
+ * Changes leave memory only once they are on disk: a batch that fails to write stays buffered and the
+ * failure names the accounts affected. New accounts are refused up front when the file has no slot left
+ * for them, so eviction never has to write an account the file cannot hold.
+ *
+ * Holds are not persisted: the hold ledger lives in the processor's memory, so reopening a file releases every
+ * held amount written by an earlier session and the accounts come back with their full balance available.
+ * Not thread-safe.
+ */
+@Slf4j
+public class TieredAccountStore implements AccountStore, Closeable {
+    /**
+     * Default number of dirty evicted accounts written back per batch.
+     */
+    static final int DEFAULT_WRITE_BATCH_SIZE = 1024;
+
+    private final DiskAccountFile file;
+    private final int writeBatchSize;
+    /**
+     * Resident accounts in access order, oldest first.
+     */
+    private final LinkedHashMap<String, BankAccount> cache;
+    /**
+     * Resident accounts changed since they were loaded or last written, by account number.
+     */
+    private final Map<String, BankAccount> dirty = new LinkedHashMap<>();
+    /**
+     * Evicted dirty accounts waiting to be written back.
+     */
+    private final Map<String, BankAccount> pendingWrites = new LinkedHashMap<>();
+    /**
+     * Accounts added through {@link #put(BankAccount)} that have not reached the file yet.
+     */
+    private long unwrittenNewCount;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long writeBackCount;
+
+    /**
+     * Opens a tiered store over the given account file with the default write batch size.
+     * @param path Location of the account file; created if missing
+     * @param cacheCapacity Maximum number of accounts kept in memory
+     * @param fileSlots Slots to allocate if the file has to be created
+     * @throws IOException if the file cannot be opened
+     */
+    public TieredAccountStore(Path path, int cacheCapacity, long fileSlots) throws IOException {
+        this(path, cacheCapacity, fileSlots, DEFAULT_WRITE_BATCH_SIZE);
+    }
+
+    /**
+     * Opens a tiered store over the given account file.
+     * @param path Location of the account file; created if missing
+     * @param cacheCapacity Maximum number of accounts kept in memory
+     * @param fileSlots Slots to allocate if the file has to be created
+     * @param writeBatchSize Number of dirty evicted accounts written back together
+     * @throws IOException if the file cannot be opened
+     */
+    public TieredAccountStore(Path path, int cacheCapacity, long fileSlots, int writeBatchSize) throws IOException {
+        if (cacheCapacity <= 0 || writeBatchSize <= 0) {
+            throw new IllegalArgumentException(String.format("Cache capacity and write batch size must be positive: %d, %d", cacheCapacity, writeBatchSize));
+        }
+        this.file = new DiskAccountFile(path, fileSlots);
+        this.writeBatchSize = writeBatchSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BankAccount> eldest) {
+                if (size() <= cacheCapacity) {
+                    return false;
+                }
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public BankAccount get(String accountNumber) {
+        BankAccount account = cache.get(accountNumber);
+        if (Objects.nonNull(account)) {
+            hitCount++;
+            return account;
+        }
+
+        // An evicted account still waiting for write-back is newer than its copy on disk
+        account = pendingWrites.remove(accountNumber);
+        if (Objects.nonNull(account)) {
+            hitCount++;
+            dirty.put(accountNumber, account);
+            cache.put(accountNumber, account);
+            return account;
+        }
+
+        missCount++;
+        try {
+            account = file.read(accountNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to load account %s", accountNumber), e);
+        }
+        if (Objects.nonNull(account)) {
+            cache.put(accountNumber, account);
+        }
+        return account;
+    }
+
+    /**
+     * Looks an account up without touching the cache. Changed accounts, resident or waiting for write-back,
+     * are returned as they are; every other account matches its copy on disk, which is read without caching it.
+     */
+    @Override
+    public BankAccount peek(String accountNumber) {
+        BankAccount account = dirty.get(accountNumber);
+        if (Objects.isNull(account)) {
+            account = pendingWrites.get(accountNumber);
+        }
+        if (Objects.nonNull(account)) {
+            return account;
+        }
+        try {
+            return file.read(accountNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to read account %s", accountNumber), e);
+        }
+    }
+
+    /**
+     * Adds a new account.
+     * @throws IllegalStateException if the account file has no slot left for it
+     */
+    @Override
+    public void put(BankAccount account) {
+        if (file.size() + unwrittenNewCount >= file.getCapacity()) {
+            throw new IllegalStateException(String.format("Account file is full, cannot add account %s", account.getAccountNumber()));
+        }
+        unwrittenNewCount++;
+        dirty.put(account.getAccountNumber(), account);
+        cache.put(account.getAccountNumber(), account);
+    }
+
+    @Override
+    public void markDirty(BankAccount account) {
+        // A transfer can evict its source while loading the destination; the change must still reach disk
+        if (cache.containsKey(account.getAccountNumber())) {
+            dirty.put(account.getAccountNumber(), account);
+        } else {
+            pendingWrites.put(account.getAccountNumber(), account);
+        }
+    }
+
+    /**
+     * Writes back all changes, then visits every account on disk.
+     * Resident accounts are passed as their cached instances; the others are decoded copies that are not cached.
+     * The scan does not count as an access, so it leaves the least-recently-used order as it was.
+     */
+    @Override
+    public void forEach(Consumer<BankAccount> action) {
+        flush();
+        // Copied once up front: a lookup per record on an access-ordered map would reorder the whole cache
+        Map<String, BankAccount> resident = new HashMap<>(cache);
+        try {
+            file.forEach(stored -> action.accept(resident.getOrDefault(stored.getAccountNumber(), stored)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan account file", e);
+        }
+    }
+
+    /**
+     * Writes every pending and resident dirty account to disk. Resident accounts stay cached.
+     * If the write fails, every account stays pending and the next flush retries it.
+     */
+    @Override
+    public void flush() {
+        List<BankAccount> batch = new ArrayList<>(pendingWrites.values());
+        batch.addAll(dirty.values());
+        writeBack(batch);
+        pendingWrites.clear();
+        dirty.clear();
+    }
+
+    /**
+     * Flushes all changes to disk and closes the account file.
+     * @throws IOException if the file cannot be synced or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.sync();
+            file.close();
+        }
+    }
+
+    /**
+     * Returns the number of lookups served from memory.
+     * @return Cache hit count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to go to disk.
+     * @return Cache miss count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of accounts evicted from memory.
+     * @return Eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of account records written to disk.
+     * @return Write-back count
+     */
+    public long getWriteBackCount() {
+        return writeBackCount;
+    }
+
+    /**
+     * Returns the number of accounts currently held in memory.
+     * @return Resident account count
+     */
+    public int getResidentCount() {
+        return cache.size();
+    }
+
+    /**
+     * Called by the cache when it drops its least recently used account.
+     * If the write-back this triggers fails, the account stays resident and dirty, as if it had not been evicted.
+     */
+    private void evict(BankAccount account) {
+        String accountNumber = account.getAccountNumber();
+        BankAccount changed = dirty.remove(accountNumber);
+        if (Objects.nonNull(changed)) {
+            pendingWrites.put(accountNumber, changed);
+            if (pendingWrites.size() >= writeBatchSize) {
+                try {
+                    writeBack(pendingWrites.values());
+                } catch (RuntimeException e) {
+                    pendingWrites.remove(accountNumber);
+                    dirty.put(accountNumber, changed);
+                    throw e;
+                }
+                pendingWrites.clear();
+            }
+        }
+        evictionCount++;
+    }
+
+    /**
+     * Writes a batch to disk. On failure nothing is dropped: the caller still holds the batch.
+     * @throws UncheckedIOException if the file cannot be written
+     * @throws IllegalStateException if the file rejects the batch, e.g. because it is full
+     */
+    private void writeBack(Collection<BankAccount> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long storedBefore = file.size();
+        try {
+            file.writeAll(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(describeFailedBatch(batch), e);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(describeFailedBatch(batch), e);
+        } finally {
+            // Records inserted before a failure are on disk even though the batch is retried as a whole
+            unwrittenNewCount -= file.size() - storedBefore;
+        }
+        writeBackCount += batch.size();
+        log.debug("Wrote back {} accounts", batch.size());
+    }
+
+    private static String describeFailedBatch(Collection<BankAccount> batch) {
+        String accountNumbers = batch.stream()
+                .limit(10)
+                .map(BankAccount::getAccountNumber)
+                .collect(Collectors.joining(", "));
+        return String.format("Failed to write back %d accounts, still held in memory: %s%s",
+                batch.size(), accountNumbers, batch.size() > 10 ? ", ..." : "");
+    }
+}
@@ -0,0 +1,124 @@
+package com.interview.code.challenge.highnote.processor;
+
+import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.TransactionType;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+/**
+ * Reusable, mutable view over one raw transaction message.
+ * The engine parses each line into the same cursor instead of building a {@link Transaction},
+ * recording field offsets into the message and decoding the amount in place.
+ * Not thread-safe; each processor owns its own cursor.
+ */
+public final class TransactionCursor {
+    private String message;
+    private TransactionType type;
+    private int accountStart;
+    private int accountEnd;
+    private int destinationStart;
+    private int destinationEnd;
+    private long amountInCents;
+
+    /**
+     * Validates a raw message and, if well formed, points the cursor at it.
+     * On any status other than {@link ValidationStatus#VALID} the cursor contents are unspecified.
+     *
+     * @param rawMessage The raw transaction message
+     * @return The validation status of the message
+     */
+    public ValidationStatus parse(String rawMessage) {
+        ValidationStatus status = TransactionMessageValidator.validate(rawMessage);
+        if (status != ValidationStatus.VALID) {
+            return status;
+        }
+
+        this.message = rawMessage;
+        this.type = TransactionMessageValidator.typeOf(rawMessage);
+        int position = TransactionMessageValidator.CODE_LENGTH;
+
+        accountStart = position + TransactionMessageValidator.LENGTH_PREFIX_LENGTH;
+        accountEnd = accountStart + lengthPrefixAt(position);
+        position = accountEnd;
+
+        if (type.getAccountFields() == 2) {
+            destinationStart = position + TransactionMessageValidator.LENGTH_PREFIX_LENGTH;
+            destinationEnd = destinationStart + lengthPrefixAt(position);
+            position = destinationEnd;
+        } else {
+            destinationStart = -1;
+            destinationEnd = -1;
+        }
+
+        long amount = 0;
+        for (int i = position; i < rawMessage.length(); i++) {
+            amount = amount * 10 + (rawMessage.charAt(i) - '0');
+        }
+        this.amountInCents = amount;
+        return status;
+    }
+
+    /**
+     * Returns the type of the current message.
+     * @return The transaction type
+     */
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the amount of the current message.
+     * @return Amount in cents
+     */
+    public long getAmountInCents() {
+        return amountInCents;
+    }
+
+    /**
+     * Returns the account of a deposit or withdrawal, or the source account of a transfer.
+     * @return The account number
+     */
+    public String getAccountNumber() {
+        return message.substring(accountStart, accountEnd);
+    }
+
+    /**
+     * Compares the current account field with an account number without extracting it.
+     * @param accountNumber The account number to compare with
+     * @return true if the message's account (or transfer source) equals the given account number
+     */
+    public boolean accountEquals(String accountNumber) {
+        return accountEnd - accountStart == accountNumber.length()
+                && message.regionMatches(accountStart, accountNumber, 0, accountNumber.length());
+    }
+
+    /**
+     * Returns the second LLVAR field: the destination account of a transfer, or the hold id of a hold type.
+     * @return The second field, or null for types with a single account field
+     */
+    public String getDestinationAccountNumber() {
+        return destinationStart < 0 ? null : message.substring(destinationStart, destinationEnd);
+    }
+
+    /**
+     * Materializes the current message as a standalone {@link Transaction} for callers outside the engine.
+     * @return A new Transaction equal to what {@link Transaction#parse(String)} would produce
+     */
+    public Transaction toTransaction() {
+        String accountNumber = getAccountNumber();
+        String destinationAccountNumber = getDestinationAccountNumber();
+        return Transaction.builder()
+                .type(type)
+                .accountNumber(accountNumber)
+                .sourceAccountNumber(type.getAccountFields() == 2 ? accountNumber : null)
+                .destinationAccountNumber(destinationAccountNumber)
+                .amountInCents(amountInCents)
+                .build();
+    }
+
+    /**
+     * Decodes a two-digit LLVAR length prefix already checked by the validator.
+     */
+    private int lengthPrefixAt(int position) {
+        return (message.charAt(position) - '0') * 10 + (message.charAt(position + 1) - '0');
+    }
+}
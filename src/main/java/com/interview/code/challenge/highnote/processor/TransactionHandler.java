@@ -0,0 +1,19 @@
+package com.interview.code.challenge.highnote.processor;
+
+/**
+ * Applies one parsed transaction of a given type to the book.
+ * Handlers are registered per {@link com.interview.code.challenge.highnote.model.TransactionType}
+ * with {@link TransactionProcessor#registerHandler}, and the processor dispatches to them by type
+ * without any string comparison.
+ */
+@FunctionalInterface
+public interface TransactionHandler {
+    /**
+     * Applies the transaction.
+     * @param accountNumber The first LLVAR field: the account, or the source account for transfers
+     * @param secondField The second LLVAR field, e.g. the destination account for transfers; null for single-field layouts
+     * @param amountInCents The amount in cents
+     * @return true if the transaction was applied
+     */
+    boolean apply(String accountNumber, String secondField, long amountInCents);
+}
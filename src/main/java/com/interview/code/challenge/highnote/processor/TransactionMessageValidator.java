@@ -0,0 +1,99 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.Objects;
+
+import com.interview.code.challenge.highnote.model.TransactionType;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+/**
+ * Structural scanner for raw transaction messages.
+ * Checks the transaction code, LLVAR length prefixes, total message length and amount digits
+ * without allocating or throwing, so corrupt input can be rejected cheaply before parsing.
+ */
+public final class TransactionMessageValidator {
+    /**
+     * Length of the transaction code at the start of each message.
+     */
+    static final int CODE_LENGTH = 4;
+    /**
+     * Length of each LLVAR length prefix.
+     */
+    static final int LENGTH_PREFIX_LENGTH = 2;
+    /**
+     * Length of the zero-padded amount at the end of each message.
+     */
+    static final int AMOUNT_LENGTH = 10;
+
+    private TransactionMessageValidator() {
+    }
+
+    /**
+     * Validates the structure of a raw transaction message.
+     * Format: CODE<LLVAR-ACCOUNT><AMOUNT-IN-10-DIGITS>, with as many LLVAR fields as the type's layout declares.
+     *
+     * @param message The raw transaction message
+     * @return {@link ValidationStatus#VALID} if the message can be parsed, otherwise the first problem found
+     */
+    public static ValidationStatus validate(String message) {
+        if (Objects.isNull(message) || message.length() < CODE_LENGTH) {
+            return ValidationStatus.MISSING_CODE;
+        }
+
+        TransactionType type = typeOf(message);
+        if (Objects.isNull(type)) {
+            return ValidationStatus.UNKNOWN_CODE;
+        }
+
+        // Walk the LLVAR account fields declared by the type, e.g. source and destination for transfers
+        int accountFields = type.getAccountFields();
+        int position = CODE_LENGTH;
+        for (int field = 0; field < accountFields; field++) {
+            int accountLength = lengthPrefixAt(message, position);
+            if (accountLength <= 0) {
+                return ValidationStatus.INVALID_LENGTH_PREFIX;
+            }
+            position += LENGTH_PREFIX_LENGTH + accountLength;
+            if (position > message.length()) {
+                return ValidationStatus.INVALID_TOTAL_LENGTH;
+            }
+        }
+
+        if (message.length() != position + AMOUNT_LENGTH) {
+            return ValidationStatus.INVALID_TOTAL_LENGTH;
+        }
+
+        for (int i = position; i < message.length(); i++) {
+            if (!isDigit(message.charAt(i))) {
+                return ValidationStatus.INVALID_AMOUNT;
+            }
+        }
+        return ValidationStatus.VALID;
+    }
+
+    /**
+     * Looks up the message's transaction code in the type table without extracting a substring.
+     */
+    static TransactionType typeOf(String message) {
+        return TransactionType.fromMessage(message);
+    }
+
+    /**
+     * Reads a two-digit LLVAR length prefix at the given position.
+     * @return The decoded length, or -1 if the prefix is missing or not numeric
+     */
+    private static int lengthPrefixAt(String message, int position) {
+        if (message.length() < position + LENGTH_PREFIX_LENGTH) {
+            return -1;
+        }
+        char tens = message.charAt(position);
+        char units = message.charAt(position + 1);
+        if (!isDigit(tens) || !isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,16 +1,24 @@
 package com.interview.code.challenge.highnote.processor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import com.interview.code.challenge.highnote.model.AccountRules;
 import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.RuleOutcome;
 import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.TransactionType;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,26 +30,171 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TransactionProcessor {
     /**
-     * Map of account numbers to BankAccount objects.
+     * Recent deposits an account needs before consecutive deposits into it are combined.
      */
-    private final Map<String, BankAccount> accounts;
+    private static final int HOT_ACCOUNT_THRESHOLD = 8;
+    /**
+     * Counters per row of the hot-account frequency sketch.
+     */
+    private static final int HOT_ACCOUNT_SKETCH_WIDTH = 4096;
+    /**
+     * Deposits observed before the hot-account frequencies are halved.
+     */
+    private static final int HOT_ACCOUNT_SAMPLE_PERIOD = 10 * HOT_ACCOUNT_SKETCH_WIDTH;
+    /**
+     * Default lifetime of an uncaptured hold, and of a capture's reversal window, in seconds (7 days).
+     */
+    static final long DEFAULT_HOLD_TTL_SECONDS = 7 * 24 * 60 * 60;
+
+    /**
+     * Storage for the accounts, in memory by default.
+     */
+    private final AccountStore accounts;
+    /**
+     * Running totals and ranked indexes maintained as accounts change.
+     */
+    private final AccountAggregates aggregates;
+    /**
+     * Accounts close to their total outgoing limit, used to reject doomed outgoing transactions early.
+     */
+    private final OutgoingLimitWatchlist outgoingWatchlist;
+    /**
+     * Current outgoing limit window; account totals recorded in older windows count as zero.
+     */
+    private long limitEpoch;
+    /**
+     * Destination for messages that fail structural pre-validation.
+     */
+    private final QuarantineSink quarantineSink;
+    /**
+     * Flyweight reused for every raw message applied through {@link #processMessage(String)}.
+     */
+    private final TransactionCursor cursor = new TransactionCursor();
+    /**
+     * Recent deposit frequency per account, used to detect hot accounts.
+     */
+    private final FrequencySketch hotAccounts = new FrequencySketch(HOT_ACCOUNT_SKETCH_WIDTH, HOT_ACCOUNT_SAMPLE_PERIOD);
+    /**
+     * Number of deposits applied as part of a combined hot-account run.
+     */
+    private long coalescedDepositCount;
+    /**
+     * Number of messages rejected by pre-validation.
+     */
+    private long quarantinedCount;
+    /**
+     * Handler for each transaction type, indexed by ordinal.
+     */
+    private final TransactionHandler[] handlers = new TransactionHandler[TransactionType.values().length];
+    /**
+     * Pending and captured authorization holds, expired by {@link #advanceHoldClock(long)}.
+     */
+    private final HoldLedger holdLedger = new HoldLedger();
+    /**
+     * Lifetime of an uncaptured hold, and of a capture's reversal window, in seconds.
+     */
+    private long holdTtlSeconds = DEFAULT_HOLD_TTL_SECONDS;
+    /**
+     * Built-in deposit handler; hot-account deposit runs are only combined while it is the registered one.
+     */
+    private final TransactionHandler builtInDepositHandler = (accountNumber, secondField, amountInCents) -> processDeposit(accountNumber, amountInCents);
+    /**
+     * Numbers of accounts changed since the last {@link #drainChangedAccounts()}; null while change tracking is off.
+     */
+    private Set<String> changedAccounts;
     
     /**
      * Creates a new TransactionProcessor with an empty account map.
+     * Messages failing pre-validation are logged and dropped.
      */
     public TransactionProcessor() {
-        this.accounts = new HashMap<>();
+        this(null);
+    }
+    
+    /**
+     * Creates a new TransactionProcessor with an empty account map.
+     * @param quarantineSink Destination for messages that fail structural pre-validation; if null, they are logged and dropped
+     */
+    public TransactionProcessor(QuarantineSink quarantineSink) {
+        this(new InMemoryAccountStore(), quarantineSink);
+    }
+    
+    /**
+     * Creates a new TransactionProcessor over the given account store.
+     * Accounts already in the store, e.g. in a reopened account file, are picked up as described in
+     * {@link #TransactionProcessor(AccountStore, QuarantineSink, long)}.
+     * @param accounts Storage for the accounts, e.g. a {@link TieredAccountStore} for books larger than memory
+     * @param quarantineSink Destination for messages that fail structural pre-validation; if null, they are logged and dropped
+     */
+    public TransactionProcessor(AccountStore accounts, QuarantineSink quarantineSink) {
+        this(accounts, quarantineSink, 0);
+    }
+    
+    /**
+     * Creates a new TransactionProcessor over the given account store, resuming an earlier outgoing limit window.
+     * Accounts already in the store are scanned once to rebuild the aggregates and the outgoing watchlist, and the
+     * limit window starts at the newest one any stored account recorded. A window rolled after an account's last
+     * outgoing transaction is not visible in the store, so pass {@link #getLimitEpoch()} from the earlier session
+     * when it is known.
+     * @param accounts Storage for the accounts, e.g. a {@link TieredAccountStore} for books larger than memory
+     * @param quarantineSink Destination for messages that fail structural pre-validation; if null, they are logged and dropped
+     * @param limitEpoch Outgoing limit window to start in, at least; 0 for a new book
+     */
+    public TransactionProcessor(AccountStore accounts, QuarantineSink quarantineSink, long limitEpoch) {
+        // Business logic: a missing sink keeps the pre-validation contract of logging and dropping bad lines
+        this.quarantineSink = Objects.nonNull(quarantineSink) ? quarantineSink
+                : (message, status) -> log.warn("Quarantined transaction message ({}): {}", status, message);
+        this.accounts = accounts;
+        this.aggregates = new AccountAggregates();
+        this.outgoingWatchlist = new OutgoingLimitWatchlist();
+        registerHandler(TransactionType.DEPOSIT, builtInDepositHandler);
+        registerHandler(TransactionType.WITHDRAWAL, (accountNumber, secondField, amountInCents) -> processWithdrawal(accountNumber, amountInCents));
+        registerHandler(TransactionType.TRANSFER, this::processTransfer);
+        registerHandler(TransactionType.HOLD, this::processHold);
+        registerHandler(TransactionType.CAPTURE, this::processCapture);
+        registerHandler(TransactionType.RELEASE, (accountNumber, holdId, amountInCents) -> processRelease(accountNumber, holdId));
+        registerHandler(TransactionType.REVERSAL, this::processReversal);
+        this.limitEpoch = limitEpoch;
+        restoreFromStore();
+    }
+    
+    /**
+     * Rebuilds the state derived from accounts that were in the store before this processor was created.
+     * The limit window is resolved first, so stored outgoing totals are read against the window they belong to.
+     */
+    private void restoreFromStore() {
+        long[] newestEpoch = {limitEpoch};
+        accounts.forEach(account -> newestEpoch[0] = Math.max(newestEpoch[0], account.getLimitEpoch()));
+        limitEpoch = newestEpoch[0];
+        accounts.forEach(account -> {
+            long totalOutInCents = account.getTotalOutInCents(limitEpoch);
+            aggregates.onAccountChanged(account.getAccountNumber(), 0, 0, account.getBalanceInCents(), totalOutInCents);
+            if (totalOutInCents != 0) {
+                outgoingWatchlist.onTotalOutChanged(account.getAccountNumber(), totalOutInCents);
+            }
+        });
+    }
+    
+    /**
+     * Sets the handler applying transactions of the given type, replacing any previous one.
+     * @param type The transaction type
+     * @param handler The handler to dispatch that type to
+     */
+    public void registerHandler(TransactionType type, TransactionHandler handler) {
+        handlers[type.ordinal()] = Objects.requireNonNull(handler, "handler");
     }
     
     /**
      * Processes an array of transaction messages.
-     * Each message is parsed and the corresponding transaction is executed.
+     * Each message is structurally pre-validated; malformed messages go to the quarantine sink
+     * and only valid ones are parsed into transactions.
      *
      * @param transactionMessages Array of transaction message strings
      * @return List<Transaction>
      */
     public List<Transaction> parseTransaction(String[] transactionMessages) {
         return Arrays.stream(transactionMessages)
+                .filter(this::admit)
                 .map(message -> {
                     try {
                         return Optional.of(Transaction.parse(message));
@@ -55,6 +208,29 @@ public class TransactionProcessor {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Runs structural pre-validation on a raw message, quarantining it if it is malformed.
+     * @param message The raw transaction message
+     * @return true if the message is well formed and may be parsed
+     */
+    private boolean admit(String message) {
+        ValidationStatus status = TransactionMessageValidator.validate(message);
+        if (status == ValidationStatus.VALID) {
+            return true;
+        }
+        quarantinedCount++;
+        quarantineSink.quarantine(message, status);
+        return false;
+    }
+    
+    /**
+     * Returns the number of messages rejected by pre-validation.
+     * @return Count of quarantined messages
+     */
+    public long getQuarantinedCount() {
+        return quarantinedCount;
+    }
+
     /**
      * Processes a single transaction. Routes the transaction to the appropriate handler based on its type.
      *
@@ -71,121 +247,493 @@ public class TransactionProcessor {
     }
     
     /**
-     * Processes a single transaction. Routes the transaction to the appropriate handler based on its type.
+     * Validates, parses and applies raw transaction messages in order through a single reusable cursor,
+     * without building a {@link Transaction} per message. Malformed messages go to the quarantine sink.
      *
-     * @param transaction The transaction to process
+     * @param transactionMessages Array of transaction message strings
+     * @return List<BankAccount>
      */
-     void processTransaction(Transaction transaction) {
-        String accountNumber = transaction.getAccountNumber();
+    public List<BankAccount> processMessages(String[] transactionMessages) {
+        if (Objects.isNull(transactionMessages) || transactionMessages.length == 0) {
+            return Collections.emptyList();
+        }
+        applyMessages(transactionMessages, 0, transactionMessages.length, null);
+        return getNonZeroAccountsSorted();
+    }
+    
+    /**
+     * Validates, parses and applies a range of raw transaction messages in order.
+     * Runs of consecutive deposits into a hot account are combined into a single balance update;
+     * every deposit in the run is still checked against the deposit rules individually, so the
+     * per-message outcomes and final balances match applying the messages one by one.
+     *
+     * @param transactionMessages Array of transaction message strings
+     * @param from Index of the first message to apply
+     * @param to Index after the last message to apply
+     * @param outcomes If not null, receives at each message index whether that message was applied
+     */
+    public void applyMessages(String[] transactionMessages, int from, int to, boolean[] outcomes) {
+        int index = from;
+        ValidationStatus status = index < to ? cursor.parse(transactionMessages[index]) : null;
+        while (index < to) {
+            if (status != ValidationStatus.VALID) {
+                quarantinedCount++;
+                quarantineSink.quarantine(transactionMessages[index], status);
+                recordOutcome(outcomes, index, false);
+            } else {
+                // Extract the account once; it is both the hot-account key and the handler argument
+                String accountNumber = cursor.getAccountNumber();
+                if (cursor.getType() == TransactionType.DEPOSIT && handlers[TransactionType.DEPOSIT.ordinal()] == builtInDepositHandler
+                        && isHot(accountNumber)) {
+                    index = applyDepositRun(transactionMessages, index, to, accountNumber, outcomes);
+                    status = index < to ? cursor.parse(transactionMessages[index]) : null;
+                    continue;
+                }
+                recordOutcome(outcomes, index, apply(cursor.getType(), accountNumber,
+                        cursor.getDestinationAccountNumber(), cursor.getAmountInCents()));
+            }
+            index++;
+            status = index < to ? cursor.parse(transactionMessages[index]) : null;
+        }
+    }
+    
+    /**
+     * Applies consecutive deposits into one account with a single balance update.
+     * Starts with the cursor on the first deposit of the run and stops at the first message that is
+     * not a valid deposit into the same account.
+     *
+     * @return Index of the first message after the run
+     */
+    private int applyDepositRun(String[] transactionMessages, int from, int to, String accountNumber, boolean[] outcomes) {
         BankAccount account = accounts.get(accountNumber);
-
-        switch (transaction.getType()) {
-            case DEPOSIT -> processDeposit(transaction, account);
-            case WITHDRAWAL -> {
+        long totalInCents = 0;
+        int deposits = 0;
+        int index = from;
+        ValidationStatus status = ValidationStatus.VALID;
+        do {
+            if (index > from) {
+                hotAccounts.increment(accountNumber.hashCode());
+            }
+            long amountInCents = cursor.getAmountInCents();
+            boolean success = false;
+            // Business logic: Same per-deposit rules as processDeposit, including creating the account first
+            if (!AccountRules.opensAccount(amountInCents)) {
+                log.warn("Deposit denied for account {}: amount {} exceeds limit", accountNumber, amountInCents);
+            } else {
                 if (Objects.isNull(account)) {
-                    log.error("Bank account not found for account number: {} to process withdrawal", accountNumber);
-                    return;
+                    account = openAccount(accountNumber);
+                }
+                if (AccountRules.checkDeposit(amountInCents) == RuleOutcome.ALLOWED) {
+                    totalInCents += amountInCents;
+                    deposits++;
+                    success = true;
+                } else {
+                    log.warn("Deposit failed for account: {}", accountNumber);
                 }
-                processWithdrawal(transaction, account);
             }
-            case TRANSFER -> processTransfer(transaction);
-            default -> log.error("Unknown transaction type: {}", transaction.getType());
+            recordOutcome(outcomes, index, success);
+            index++;
+            if (index < to) {
+                status = cursor.parse(transactionMessages[index]);
+            }
+        } while (index < to && status == ValidationStatus.VALID
+                && cursor.getType() == TransactionType.DEPOSIT && cursor.accountEquals(accountNumber));
+
+        if (deposits > 0) {
+            long previousBalanceInCents = account.getBalanceInCents();
+            account.applyDeposits(totalInCents, deposits);
+            recordChange(account, previousBalanceInCents, account.getTotalOutInCents(limitEpoch));
+            coalescedDepositCount += deposits;
+        }
+        return index;
+    }
+    
+    /**
+     * Records a deposit into an account and reports whether the account is currently hot.
+     */
+    private boolean isHot(String accountNumber) {
+        return hotAccounts.increment(accountNumber.hashCode()) >= HOT_ACCOUNT_THRESHOLD;
+    }
+    
+    private static void recordOutcome(boolean[] outcomes, int index, boolean applied) {
+        if (Objects.nonNull(outcomes)) {
+            outcomes[index] = applied;
+        }
+    }
+    
+    /**
+     * Returns the number of deposits applied as part of a combined hot-account run.
+     * @return Count of coalesced deposits
+     */
+    public long getCoalescedDepositCount() {
+        return coalescedDepositCount;
+    }
+    
+    /**
+     * Validates, parses and applies a single raw transaction message.
+     *
+     * @param message The raw transaction message
+     * @return true if the transaction was applied, false if it was quarantined or rejected
+     */
+    public boolean processMessage(String message) {
+        ValidationStatus status = cursor.parse(message);
+        if (status != ValidationStatus.VALID) {
+            quarantinedCount++;
+            quarantineSink.quarantine(message, status);
+            return false;
+        }
+        return apply(cursor.getType(), cursor.getAccountNumber(), cursor.getDestinationAccountNumber(), cursor.getAmountInCents());
+    }
+    
+    /**
+     * Processes a single transaction. Routes the transaction to the appropriate handler based on its type.
+     *
+     * @param transaction The transaction to process
+     * @return true if the transaction was applied
+     */
+     boolean processTransaction(Transaction transaction) {
+        if (transaction.getType() == TransactionType.TRANSFER) {
+            return apply(TransactionType.TRANSFER, transaction.getSourceAccountNumber(),
+                    transaction.getDestinationAccountNumber(), transaction.getAmountInCents());
         }
+        String secondField = transaction.getType().getAccountFields() == 2 ? transaction.getDestinationAccountNumber() : null;
+        return apply(transaction.getType(), transaction.getAccountNumber(), secondField, transaction.getAmountInCents());
+    }
+    
+    /**
+     * Applies one transaction, however it was parsed. Routes it to the handler registered for its type.
+     *
+     * @param type The transaction type
+     * @param accountNumber The account, or the source account for transfers
+     * @param secondField The second LLVAR field, e.g. the destination account for transfers, otherwise null
+     * @param amountInCents The amount in cents
+     * @return true if the transaction was applied
+     */
+    private boolean apply(TransactionType type, String accountNumber, String secondField, long amountInCents) {
+        // Business logic: Outgoing transactions from capped accounts are rejected before account resolution
+        if (type.isOutgoing() && outgoingWatchlist.isDoomed(accountNumber, amountInCents)) {
+            log.warn("{} denied for account {}: amount {} exceeds remaining outgoing limit", type, accountNumber, amountInCents);
+            return false;
+        }
+
+        TransactionHandler handler = handlers[type.ordinal()];
+        if (Objects.isNull(handler)) {
+            log.warn("No handler registered for transaction type {}", type);
+            return false;
+        }
+        return handler.apply(accountNumber, secondField, amountInCents);
     }
     
     /**
      * Processes a deposit transaction.
      * Creates a new account if it doesn't exist, then performs the deposit.
-     * @param transaction The deposit transaction
-     * @param account The existing account (may be null)
+     * @param accountNumber The account to deposit into
+     * @param amountInCents The amount in cents
+     * @return true if the deposit succeeded
      */
-    private void processDeposit(Transaction transaction, BankAccount account) {
-        String accountNumber = transaction.getAccountNumber();
-        long amountInCents = transaction.getAmountInCents();
-
+    private boolean processDeposit(String accountNumber, long amountInCents) {
         // Check deposit limit BEFORE creating account
-        if (amountInCents > 100000) {
+        if (!AccountRules.opensAccount(amountInCents)) {
             log.warn("Deposit denied for account {}: amount {} exceeds limit", accountNumber, amountInCents);
-            return;
+            return false;
         }
 
         // Create a new account if it doesn't exist
+        BankAccount account = accounts.get(accountNumber);
         if (Objects.isNull(account)) {
-            account = BankAccount.builder()
-                    .accountNumber(accountNumber)
-                    .balanceInCents(0)
-                    .totalOutInCents(0)
-                    .build();
-            accounts.put(accountNumber, account);
-            log.info("Created new account: {}", accountNumber);
+            account = openAccount(accountNumber);
         }
 
         // Attempt deposit and log result
+        long previousBalanceInCents = account.getBalanceInCents();
         boolean success = account.deposit(amountInCents);
         if (!success) {
             log.warn("Deposit failed for account: {}", accountNumber);
+            return false;
         }
+        recordChange(account, previousBalanceInCents, account.getTotalOutInCents(limitEpoch));
+        return true;
+    }
+    
+    /**
+     * Creates an empty account and adds it to the account map.
+     * @param accountNumber The new account's number
+     * @return The new account
+     */
+    private BankAccount openAccount(String accountNumber) {
+        BankAccount account = BankAccount.builder()
+                .accountNumber(accountNumber)
+                .balanceInCents(0)
+                .totalOutInCents(0)
+                .limitEpoch(limitEpoch)
+                .build();
+        accounts.put(account);
+        log.info("Created new account: {}", accountNumber);
+        return account;
     }
     
     /**
      * Processes a withdrawal transaction.
      * Only processes withdrawal if the account exists.
-     * @param transaction The withdrawal transaction
-     * @param account The existing account (may be null)
+     * @param accountNumber The account to withdraw from
+     * @param amountInCents The amount in cents
+     * @return true if the withdrawal succeeded
      */
-    private void processWithdrawal(Transaction transaction, BankAccount account) {
-        String accountNumber = transaction.getAccountNumber();
-        long amountInCents = transaction.getAmountInCents();
+    private boolean processWithdrawal(String accountNumber, long amountInCents) {
+        BankAccount account = accounts.get(accountNumber);
         
         // Business logic: Withdrawal only allowed from existing accounts
         if (Objects.isNull(account)) {
             log.warn("Withdrawal failed: Account {} does not exist", accountNumber);
-            return;
+            return false;
         }
         
         // Business logic: Attempt withdrawal and log result
-        boolean success = account.withdraw(amountInCents);
+        long previousBalanceInCents = account.getBalanceInCents();
+        long previousTotalOutInCents = account.getTotalOutInCents(limitEpoch);
+        boolean success = account.withdraw(amountInCents, limitEpoch);
         if (!success) {
             log.warn("Withdrawal failed for account: {}", accountNumber);
+            return false;
         }
+        recordChange(account, previousBalanceInCents, previousTotalOutInCents);
+        return true;
     }
     
     /**
      * Processes a transfer transaction.
      * Both source and destination accounts must exist.
-     * @param transaction The transfer transaction
+     * @param sourceAccountNumber The account to transfer from
+     * @param destinationAccountNumber The account to transfer to
+     * @param amountInCents The amount in cents
+     * @return true if the transfer succeeded
      */
-    private void processTransfer(Transaction transaction) {
-        String sourceAccountNumber = transaction.getSourceAccountNumber();
-        String destinationAccountNumber = transaction.getDestinationAccountNumber();
-        long amountInCents = transaction.getAmountInCents();
-        
+    private boolean processTransfer(String sourceAccountNumber, String destinationAccountNumber, long amountInCents) {
         // Business logic: Both source and destination accounts must exist
         BankAccount sourceAccount = accounts.get(sourceAccountNumber);
         BankAccount destinationAccount = accounts.get(destinationAccountNumber);
         
         if (Objects.isNull(sourceAccount) || Objects.isNull(destinationAccount)) {
             log.warn("Transfer failed: Either source account {} or destination account {} does not exist", sourceAccountNumber, destinationAccountNumber);
-            return;
+            return false;
         }
         
         // Business logic: Source and destination accounts must be different
         if (sourceAccountNumber.equals(destinationAccountNumber)) {
             log.warn("Transfer failed: Source and destination accounts cannot be the same: {}", sourceAccountNumber);
-            return;
+            return false;
         }
         
         // Attempt transfer out from source account
-        boolean transferOutSuccess = sourceAccount.transferOut(amountInCents);
+        long sourcePreviousBalanceInCents = sourceAccount.getBalanceInCents();
+        long sourcePreviousTotalOutInCents = sourceAccount.getTotalOutInCents(limitEpoch);
+        boolean transferOutSuccess = sourceAccount.transferOut(amountInCents, limitEpoch);
         if (!transferOutSuccess) {
             log.warn("Transfer failed: Cannot transfer out from source account: {}", sourceAccountNumber);
-            return;
+            return false;
         }
+        recordChange(sourceAccount, sourcePreviousBalanceInCents, sourcePreviousTotalOutInCents);
         
         // Transfer in to destination account (no limits on receiving)
+        long destinationPreviousBalanceInCents = destinationAccount.getBalanceInCents();
         destinationAccount.deposit(amountInCents);
+        recordChange(destinationAccount, destinationPreviousBalanceInCents, destinationAccount.getTotalOutInCents(limitEpoch));
         log.info("Transfer successful: {} cents from account {} to account {}", 
                 amountInCents, sourceAccountNumber, destinationAccountNumber);
+        return true;
+    }
+    
+    /**
+     * Processes an authorization hold: reserves part of the account's available balance under a hold id.
+     * @param accountNumber The account to hold funds on
+     * @param holdId The hold id, unique per account while the hold is outstanding
+     * @param amountInCents The amount in cents
+     * @return true if the hold was placed
+     */
+    private boolean processHold(String accountNumber, String holdId, long amountInCents) {
+        // Business logic: Holds only allowed on existing accounts
+        BankAccount account = accounts.get(accountNumber);
+        if (Objects.isNull(account)) {
+            log.warn("Hold failed: Account {} does not exist", accountNumber);
+            return false;
+        }
+
+        // Business logic: Hold ids must be unique per account while outstanding
+        if (Objects.nonNull(holdLedger.get(accountNumber, holdId))) {
+            log.warn("Hold failed: Hold {} already exists on account {}", holdId, accountNumber);
+            return false;
+        }
+
+        long previousBalanceInCents = account.getBalanceInCents();
+        if (!account.placeHold(amountInCents)) {
+            log.warn("Hold failed for account: {}", accountNumber);
+            return false;
+        }
+        holdLedger.place(accountNumber, holdId, amountInCents, holdLedger.getTime() + holdTtlSeconds);
+        recordChange(account, previousBalanceInCents, account.getTotalOutInCents(limitEpoch));
+        return true;
+    }
+    
+    /**
+     * Processes a capture: settles a pending hold for at most its held amount, releasing any remainder.
+     * The captured amount counts against the outgoing limit like a withdrawal.
+     *
+     * @param accountNumber The account holding the hold
+     * @param holdId The hold to capture
+     * @param amountInCents The amount in cents
+     * @return true if the capture succeeded
+     */
+    private boolean processCapture(String accountNumber, String holdId, long amountInCents) {
+        HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+
+        // Business logic: Only pending holds can be captured, for at most the held amount
+        if (Objects.isNull(hold) || hold.isCaptured()) {
+            log.warn("Capture failed: No pending hold {} on account {}", holdId, accountNumber);
+            return false;
+        }
+        if (amountInCents <= 0 || amountInCents > hold.getAmountInCents()) {
+            log.warn("Capture failed: amount {} outside hold {} of {} cents on account {}", amountInCents, holdId, hold.getAmountInCents(), accountNumber);
+            return false;
+        }
+
+        BankAccount account = accounts.get(accountNumber);
+        long previousBalanceInCents = account.getBalanceInCents();
+        long previousTotalOutInCents = account.getTotalOutInCents(limitEpoch);
+        if (!account.captureHold(hold.getAmountInCents(), amountInCents, limitEpoch)) {
+            log.warn("Capture failed for account: {}", accountNumber);
+            return false;
+        }
+        holdLedger.capture(hold, amountInCents, holdLedger.getTime() + holdTtlSeconds);
+        recordChange(account, previousBalanceInCents, previousTotalOutInCents);
+        return true;
+    }
+    
+    /**
+     * Processes a release: drops a pending hold and returns its amount to the available balance.
+     * @param accountNumber The account holding the hold
+     * @param holdId The hold to release
+     * @return true if the hold was released
+     */
+    private boolean processRelease(String accountNumber, String holdId) {
+        HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+        if (Objects.isNull(hold) || hold.isCaptured()) {
+            log.warn("Release failed: No pending hold {} on account {}", holdId, accountNumber);
+            return false;
+        }
+        releaseHold(hold);
+        holdLedger.remove(hold);
+        return true;
+    }
+    
+    /**
+     * Processes a reversal: credits back part or all of a captured hold while it is still reversible.
+     * @param accountNumber The account holding the hold
+     * @param holdId The captured hold to reverse
+     * @param amountInCents The amount in cents
+     * @return true if the reversal succeeded
+     */
+    private boolean processReversal(String accountNumber, String holdId, long amountInCents) {
+        HoldLedger.Hold hold = holdLedger.get(accountNumber, holdId);
+
+        // Business logic: Only captured holds can be reversed, for at most the captured amount left
+        if (Objects.isNull(hold) || !hold.isCaptured()) {
+            log.warn("Reversal failed: No captured hold {} on account {}", holdId, accountNumber);
+            return false;
+        }
+        if (amountInCents <= 0 || amountInCents > hold.getCapturedInCents()) {
+            log.warn("Reversal failed: amount {} outside remaining capture {} cents of hold {} on account {}", amountInCents, hold.getCapturedInCents(), holdId, accountNumber);
+            return false;
+        }
+
+        BankAccount account = accounts.get(accountNumber);
+        long previousBalanceInCents = account.getBalanceInCents();
+        long previousTotalOutInCents = account.getTotalOutInCents(limitEpoch);
+        account.reverseOut(amountInCents, limitEpoch);
+        holdLedger.reverse(hold, amountInCents);
+        recordChange(account, previousBalanceInCents, previousTotalOutInCents);
+        return true;
+    }
+    
+    /**
+     * Returns a pending hold's amount to its account's available balance.
+     */
+    private void releaseHold(HoldLedger.Hold hold) {
+        BankAccount account = accounts.get(hold.getAccountNumber());
+        account.releaseHold(hold.getAmountInCents());
+        recordChange(account, account.getBalanceInCents(), account.getTotalOutInCents(limitEpoch));
+    }
+    
+    /**
+     * Moves the hold clock forward, releasing uncaptured holds and closing reversal windows that are due.
+     * Only holds due since the previous call are visited, however many are outstanding.
+     * The clock starts at zero, so set it before placing holds when using wall-clock time.
+     *
+     * @param nowSeconds Current time in seconds, e.g. epoch seconds; earlier times are ignored
+     */
+    public void advanceHoldClock(long nowSeconds) {
+        holdLedger.advance(nowSeconds, hold -> {
+            if (!hold.isCaptured()) {
+                log.info("Hold {} on account {} expired", hold.getHoldId(), hold.getAccountNumber());
+                releaseHold(hold);
+            }
+        });
+    }
+    
+    /**
+     * Sets how long an uncaptured hold lasts, and how long a capture stays reversible, for holds placed or captured from now on.
+     * @param holdTtlSeconds Lifetime in seconds
+     */
+    public void setHoldTtlSeconds(long holdTtlSeconds) {
+        if (holdTtlSeconds <= 0) {
+            throw new IllegalArgumentException(String.format("Hold lifetime must be positive: %d", holdTtlSeconds));
+        }
+        this.holdTtlSeconds = holdTtlSeconds;
+    }
+    
+    /**
+     * Returns the number of holds still reserving balance.
+     * @return Pending hold count
+     */
+    public int getPendingHoldCount() {
+        return holdLedger.getPendingCount();
+    }
+    
+    /**
+     * Starts a new outgoing limit window, e.g. at the start of a business day.
+     * Accounts are not touched: each one treats its outgoing total as zero on its next outgoing
+     * transaction because its recorded window is now stale, so the roll costs the same for any book size.
+     */
+    public void rollLimitWindow() {
+        limitEpoch++;
+        aggregates.resetTotalOut();
+        outgoingWatchlist.reset();
+        log.info("Rolled outgoing limit window to epoch {}", limitEpoch);
+    }
+    
+    /**
+     * Returns the current outgoing limit window.
+     * @return The limit epoch
+     */
+    public long getLimitEpoch() {
+        return limitEpoch;
+    }
+    
+    /**
+     * Propagates a change in an account's balance or outgoing total to the maintained aggregates.
+     * @param account The account after the change
+     * @param previousBalanceInCents Balance before the change
+     * @param previousTotalOutInCents Outgoing total before the change
+     */
+    private void recordChange(BankAccount account, long previousBalanceInCents, long previousTotalOutInCents) {
+        accounts.markDirty(account);
+        if (Objects.nonNull(changedAccounts)) {
+            changedAccounts.add(account.getAccountNumber());
+        }
+        aggregates.onAccountChanged(account.getAccountNumber(), previousBalanceInCents, previousTotalOutInCents,
+                account.getBalanceInCents(), account.getTotalOutInCents(limitEpoch));
+        if (account.getTotalOutInCents(limitEpoch) != previousTotalOutInCents) {
+            outgoingWatchlist.onTotalOutChanged(account.getAccountNumber(), account.getTotalOutInCents(limitEpoch));
+        }
     }
     
     /**
@@ -193,7 +741,17 @@ public class TransactionProcessor {
      * @return Map of account numbers to BankAccount objects
      */
     public Map<String, BankAccount> getAccounts() {
-        return new HashMap<>(accounts);
+        Map<String, BankAccount> copy = new HashMap<>();
+        accounts.forEach(account -> copy.put(account.getAccountNumber(), account));
+        return copy;
+    }
+    
+    /**
+     * Visits every account in place, without copying the account map.
+     * @param action Action applied to each account
+     */
+    public void forEachAccount(Consumer<BankAccount> action) {
+        accounts.forEach(action);
     }
     
     /**
@@ -201,9 +759,67 @@ public class TransactionProcessor {
      * @return List of BankAccount objects sorted by account number
      */
     public List<BankAccount> getNonZeroAccountsSorted() {
-        return accounts.values().stream()
-                   .filter(acc -> acc.getBalanceInCents() != 0)
-                   .collect(Collectors.toList());
+        List<BankAccount> nonZero = new ArrayList<>();
+        accounts.forEach(acc -> {
+            if (acc.getBalanceInCents() != 0) {
+                nonZero.add(acc);
+            }
+        });
+        return nonZero;
+    }
+    
+    /**
+     * Returns copies of the accounts with non-zero balances, safe to hand to other threads
+     * while this processor keeps applying transactions.
+     * @return List of detached BankAccount copies
+     */
+    public List<BankAccount> getNonZeroAccountsSnapshot() {
+        List<BankAccount> snapshot = new ArrayList<>();
+        accounts.forEach(account -> {
+            if (account.getBalanceInCents() != 0) {
+                snapshot.add(detachedCopy(account));
+            }
+        });
+        return snapshot;
+    }
+    
+    /**
+     * Turns recording of changed accounts on or off, for callers that report changes instead of the whole book.
+     * Turning it off discards anything recorded and not yet drained.
+     * @param enabled Whether to record changed accounts
+     */
+    public void setChangeTracking(boolean enabled) {
+        changedAccounts = enabled ? new LinkedHashSet<>() : null;
+    }
+    
+    /**
+     * Returns copies of the accounts changed since the previous call, in order of first change, and starts a new record.
+     * Accounts whose balance went to zero are included, so callers can drop them from their own view of the book.
+     * @return List of detached BankAccount copies; empty while change tracking is off
+     */
+    public List<BankAccount> drainChangedAccounts() {
+        if (Objects.isNull(changedAccounts) || changedAccounts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<BankAccount> changed = new ArrayList<>(changedAccounts.size());
+        for (String accountNumber : changedAccounts) {
+            changed.add(detachedCopy(accounts.get(accountNumber)));
+        }
+        changedAccounts.clear();
+        return changed;
+    }
+    
+    /**
+     * Copies an account so it can be handed to other threads while this processor keeps changing the original.
+     */
+    private static BankAccount detachedCopy(BankAccount account) {
+        return BankAccount.builder()
+                .accountNumber(account.getAccountNumber())
+                .balanceInCents(account.getBalanceInCents())
+                .totalOutInCents(account.getTotalOutInCents())
+                .limitEpoch(account.getLimitEpoch())
+                .heldInCents(account.getHeldInCents())
+                .build();
     }
     
     /**
@@ -214,4 +830,81 @@ public class TransactionProcessor {
     public BankAccount getAccount(String accountNumber) {
         return accounts.get(accountNumber);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Returns the account with the specified account number for reading only, without the store counting it as a use,
+     * e.g. for exports that visit every account once.
+     * @param accountNumber The account number to look up
+     * @return The BankAccount object, or null if not found
+     */
+    BankAccount peekAccount(String accountNumber) {
+        return accounts.peek(accountNumber);
+    }
+    
+    /**
+     * Writes any account changes the store still holds in memory to its backing storage.
+     */
+    public void flushAccounts() {
+        accounts.flush();
+    }
+    
+    /**
+     * Returns the sum of all account balances, maintained as transactions are applied.
+     * @return Total book balance in cents
+     */
+    public long getTotalBalanceInCents() {
+        return aggregates.getTotalBalanceInCents();
+    }
+    
+    /**
+     * Returns the number of accounts with a non-zero balance without scanning the account map.
+     * @return Count of non-zero accounts
+     */
+    public int getNonZeroAccountCount() {
+        return aggregates.getNonZeroAccountCount();
+    }
+    
+    /**
+     * Returns the accounts with the highest balances.
+     * @param limit Maximum number of accounts to return
+     * @return List of BankAccount objects sorted by descending balance
+     */
+    public List<BankAccount> getTopAccountsByBalance(int limit) {
+        return resolve(aggregates.getTopByBalance(limit));
+    }
+    
+    /**
+     * Returns the accounts with the highest total outgoing (withdrawals + transfers).
+     * @param limit Maximum number of accounts to return
+     * @return List of BankAccount objects sorted by descending total outgoing
+     */
+    public List<BankAccount> getTopAccountsByTotalOut(int limit) {
+        return resolve(aggregates.getTopByTotalOut(limit));
+    }
+    
+    /**
+     * Returns the accounts whose total outgoing is within the given amount of the outgoing limit.
+     * @param withinInCents Maximum remaining outgoing headroom in cents
+     * @return List of BankAccount objects sorted by descending total outgoing
+     */
+    public List<BankAccount> getAccountsNearOutgoingLimit(long withinInCents) {
+        return resolve(aggregates.getWithinOfLimit(BankAccount.MAX_TOTAL_OUT_CENTS, withinInCents));
+    }
+    
+    /**
+     * Returns the index of accounts close to their total outgoing limit.
+     * @return The outgoing limit watchlist
+     */
+    public OutgoingLimitWatchlist getOutgoingWatchlist() {
+        return outgoingWatchlist;
+    }
+    
+    /**
+     * Maps account numbers reported by the aggregates back to their accounts.
+     */
+    private List<BankAccount> resolve(List<String> accountNumbers) {
+        return accountNumbers.stream()
+                .map(accounts::get)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,12 +1,15 @@
 package com.interview.code.challenge.highnote.processor;
 
 import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.OutputFormat;
 import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
 import com.interview.code.challenge.highnote.model.ProcessTransactionsResponse;
-import com.interview.code.challenge.highnote.model.Transaction;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Main application class for processing transaction messages.
@@ -24,14 +27,50 @@ public class TransactionProcessorService {
      * @return List<BankAccount
      */
     public ProcessTransactionsResponse processTransactions(ProcessTransactionsRequest request) {
-        // Parse Transactions
+        // Validate, parse and process transactions against those virtual accounts in a single pass
         TransactionProcessor processor = new TransactionProcessor();
-        List<Transaction> transactions = processor.parseTransaction(request.getTransactions());
-
-        // Process valid transactions against those virtual accounts
-        List<BankAccount> bankAccounts = processor.processTransactions(transactions);
+        List<BankAccount> bankAccounts = processor.processMessages(request.getTransactions());
 
         // Output results in required format
         return ProcessTransactionsResponse.builder().bankAccounts(bankAccounts).build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Processes an array of transaction messages and streams the resulting non-zero accounts
+     * straight to a channel instead of building a response list.
+     *
+     * @param request ProcessTransactionsRequest which contains an array of transactions
+     * @param channel Destination for the encoded account records
+     * @param format Record layout
+     * @return Number of account records written
+     * @throws IOException if the channel cannot be written
+     */
+    public long processTransactions(ProcessTransactionsRequest request, WritableByteChannel channel, OutputFormat format) throws IOException {
+        return processTransactions(request, channel, format, null);
+    }
+
+    /**
+     * Processes an array of transaction messages and streams the resulting non-zero accounts to a channel,
+     * notifying the caller as soon as the first message has been applied.
+     *
+     * @param request ProcessTransactionsRequest which contains an array of transactions
+     * @param channel Destination for the encoded account records
+     * @param format Record layout
+     * @param onFirstApplied Called once after the first message is applied, e.g. to time it; may be null
+     * @return Number of account records written
+     * @throws IOException if the channel cannot be written
+     */
+    public long processTransactions(ProcessTransactionsRequest request, WritableByteChannel channel, OutputFormat format,
+            Runnable onFirstApplied) throws IOException {
+        String[] messages = request.getTransactions();
+        TransactionProcessor processor = new TransactionProcessor();
+        if (Objects.nonNull(onFirstApplied) && messages.length > 0) {
+            processor.applyMessages(messages, 0, 1, null);
+            onFirstApplied.run();
+            processor.applyMessages(messages, 1, messages.length, null);
+        } else {
+            processor.applyMessages(messages, 0, messages.length, null);
+        }
+        return new AccountStateWriter(channel, format).writeNonZeroAccounts(processor);
+    }
+}
@@ -0,0 +1,42 @@
+package com.interview.code.challenge.highnote;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionProcessorApplicationTest {
+
+    @Test
+    void testAppliesInputAndReportsTiming() throws IOException {
+        String input = "10101088888888880000010000\n10201088888888880000002500\nbroken\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        int exitCode = TransactionProcessorApplication.run(new String[] {"--timing", "-"},
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), Channels.newChannel(out), new PrintStream(err));
+
+        assertEquals(0, exitCode);
+        assertEquals("8888888888,75.00\n", out.toString(StandardCharsets.US_ASCII));
+        assertTrue(err.toString().contains("main-to-first-transaction"));
+    }
+
+    @Test
+    void testTrainingRunAndUsageErrors() throws IOException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        ByteArrayInputStream none = new ByteArrayInputStream(new byte[0]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, TransactionProcessorApplication.run(new String[] {"--train", "--warmup", "1"}, none, Channels.newChannel(out), new PrintStream(err)));
+        assertEquals(0, out.size());
+        assertEquals(2, TransactionProcessorApplication.run(new String[] {"--format", "XML"}, none, Channels.newChannel(out), new PrintStream(err)));
+        assertEquals(2, TransactionProcessorApplication.run(new String[] {"a", "b"}, none, Channels.newChannel(out), new PrintStream(err)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.AccountRules;
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.RuleOutcome;
+
+class AccountRulesTest {
+
+    @Test
+    void testDebitRulesApplyInOrder() {
+        long max = BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS;
+        assertEquals(RuleOutcome.NOT_POSITIVE, AccountRules.checkDebit(0, max, 0, 0));
+        assertEquals(RuleOutcome.OVER_TRANSACTION_LIMIT, AccountRules.checkDebit(max + 1, max, BankAccount.MAX_TOTAL_OUT_CENTS, 0));
+        assertEquals(RuleOutcome.OVER_OUTGOING_LIMIT, AccountRules.checkDebit(max, max, BankAccount.MAX_TOTAL_OUT_CENTS - max + 1, 0));
+        assertEquals(RuleOutcome.INSUFFICIENT_FUNDS, AccountRules.checkDebit(max, max, 0, max - 1));
+        assertEquals(RuleOutcome.ALLOWED, AccountRules.checkDebit(max, max, BankAccount.MAX_TOTAL_OUT_CENTS - max, max));
+    }
+
+    @Test
+    void testDepositAndHoldRules() {
+        assertEquals(RuleOutcome.NOT_POSITIVE, AccountRules.checkDeposit(0));
+        assertTrue(AccountRules.opensAccount(0));
+        assertEquals(RuleOutcome.OVER_TRANSACTION_LIMIT, AccountRules.checkDeposit(BankAccount.MAX_DEPOSIT_AMOUNT_CENTS + 1));
+        assertFalse(AccountRules.opensAccount(BankAccount.MAX_DEPOSIT_AMOUNT_CENTS + 1));
+        assertEquals(RuleOutcome.ALLOWED, AccountRules.checkDeposit(BankAccount.MAX_DEPOSIT_AMOUNT_CENTS));
+
+        assertEquals(RuleOutcome.OVER_TRANSACTION_LIMIT, AccountRules.checkHold(BankAccount.MAX_WITHDRAWAL_PER_TRANSACTION_CENTS + 1, Long.MAX_VALUE));
+        assertEquals(RuleOutcome.INSUFFICIENT_FUNDS, AccountRules.checkHold(100, 99));
+        assertEquals(RuleOutcome.ALLOWED, AccountRules.checkHold(100, 100));
+    }
+
+    @Test
+    void testOutgoingTotalOnlyCountsInItsWindow() {
+        assertEquals(300, AccountRules.totalOutInWindow(300, 2, 2));
+        assertEquals(0, AccountRules.totalOutInWindow(300, 1, 2));
+        assertEquals(100, AccountRules.totalOutAfterReversal(300, 2, 2, 200));
+        assertEquals(0, AccountRules.totalOutAfterReversal(300, 2, 2, 500));
+        assertEquals(300, AccountRules.totalOutAfterReversal(300, 1, 2, 200));
+    }
+}
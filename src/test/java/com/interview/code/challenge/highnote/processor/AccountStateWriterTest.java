@@ -0,0 +1,78 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.OutputFormat;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+
+class AccountStateWriterTest {
+
+    @Test
+    void testCsvFormatsExactCents() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccountStateWriter writer = new AccountStateWriter(Channels.newChannel(out), OutputFormat.CSV);
+        writer.write("1234567", 45000);
+        writer.write("234591", 5);
+        writer.write("444777", 123456789012L);
+        writer.write("000001", -101);
+        writer.flush();
+        assertEquals("1234567,450.00\n234591,0.05\n444777,1234567890.12\n000001,-1.01\n", out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testFixedWidthAndLlvarFormats() throws IOException {
+        ByteArrayOutputStream fixed = new ByteArrayOutputStream();
+        AccountStateWriter fixedWriter = new AccountStateWriter(Channels.newChannel(fixed), OutputFormat.FIXED_WIDTH, 256, 10);
+        fixedWriter.write("1234567", 45000);
+        fixedWriter.flush();
+        assertEquals("1234567            450.00\n", fixed.toString(StandardCharsets.US_ASCII));
+
+        ByteArrayOutputStream llvar = new ByteArrayOutputStream();
+        AccountStateWriter llvarWriter = new AccountStateWriter(Channels.newChannel(llvar), OutputFormat.LLVAR);
+        llvarWriter.write("1234567", 45000);
+        llvarWriter.flush();
+        assertEquals("0712345670000045000\n", llvar.toString(StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class, () -> llvarWriter.write("1234567", 10_000_000_000L));
+    }
+
+    @Test
+    void testBufferIsReusedAcrossManyRecords() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AccountStateWriter writer = new AccountStateWriter(Channels.newChannel(out), OutputFormat.CSV, 256, 20);
+        for (int i = 0; i < 1000; i++) {
+            writer.write(String.valueOf(i), i * 100L);
+        }
+        writer.flush();
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(1000, lines.length);
+        assertEquals("999,999.00", lines[999]);
+    }
+
+    @Test
+    void testServiceStreamsNonZeroAccounts() throws IOException {
+        String[] input = {
+            "10100712345670000100000",
+            "1010062345910000040000",
+            "1010064447770000020000",
+            "1020064447770000020000"
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = new TransactionProcessorService().processTransactions(
+                ProcessTransactionsRequest.builder().transactions(input).build(), Channels.newChannel(out), OutputFormat.CSV);
+
+        assertEquals(2, written);
+        Set<String> lines = new HashSet<>(Arrays.asList(out.toString(StandardCharsets.US_ASCII).split("\n")));
+        assertEquals(Set.of("1234567,1000.00", "234591,400.00"), lines);
+    }
+}
@@ -0,0 +1,189 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsResponse;
+import com.interview.code.challenge.highnote.model.TransactionOutcome;
+
+class AsyncTransactionProcessorServiceTest {
+
+    @Test
+    void testTinySubmissionsAreCoalesced() throws Exception {
+        String[] messages = DifferentialHarness.generate(36, DifferentialHarness.WorkloadSpec.defaults(40));
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        try (AsyncTransactionProcessorService service = new AsyncTransactionProcessorService(processor, 1000, 50_000)) {
+            List<CompletableFuture<ProcessTransactionsResponse>> futures = new ArrayList<>();
+            for (String message : messages) {
+                futures.add(service.submit(request(message)));
+            }
+            Map<String, BankAccount> book = new HashMap<>();
+            for (CompletableFuture<ProcessTransactionsResponse> future : futures) {
+                future.get(5, TimeUnit.SECONDS).getBankAccounts().forEach(account -> book.put(account.getAccountNumber(), account));
+            }
+
+            assertTrue(service.getAppliedBatchCount() < messages.length);
+            assertEquals(DifferentialHarness.reference(messages).balances(), DifferentialHarness.balances(new ArrayList<>(book.values())));
+        }
+    }
+
+    @Test
+    void testResponseListsOnlyAccountsChangedByItsBatch() throws Exception {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        processor.processMessages(DifferentialHarness.generate(38, DifferentialHarness.WorkloadSpec.defaults(2000)));
+        try (AsyncTransactionProcessorService service = new AsyncTransactionProcessorService(processor, 64, 0)) {
+            List<BankAccount> changed = service.submit(request(
+                    "10100712345670000000100", "10200712345670000000100")).get(5, TimeUnit.SECONDS).getBankAccounts();
+
+            assertEquals(1, changed.size());
+            assertEquals("1234567", changed.get(0).getAccountNumber());
+            // Emptied by the batch, and still reported so callers can drop it
+            assertEquals(0, changed.get(0).getBalanceInCents());
+            assertTrue(service.submit(request("INVALID")).get(5, TimeUnit.SECONDS).getBankAccounts().isEmpty());
+        }
+    }
+
+    @Test
+    void testOutcomesArePublishedInSubmissionOrder() throws Exception {
+        String[] messages = DifferentialHarness.generate(37, DifferentialHarness.WorkloadSpec.defaults(200));
+        List<TransactionOutcome> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(messages.length);
+
+        try (AsyncTransactionProcessorService service = new AsyncTransactionProcessorService(
+                new TransactionProcessor((message, status) -> { }), 64, 0)) {
+            service.getOutcomes().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(TransactionOutcome item) {
+                    received.add(item);
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            for (int i = 0; i < messages.length; i += 10) {
+                String[] chunk = new String[Math.min(10, messages.length - i)];
+                System.arraycopy(messages, i, chunk, 0, chunk.length);
+                service.submit(request(chunk));
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+
+        List<Boolean> expected = DifferentialHarness.reference(messages).outcomes();
+        for (int i = 0; i < messages.length; i++) {
+            TransactionOutcome outcome = received.get(i);
+            assertEquals(i / 10, outcome.getSubmissionId());
+            assertEquals(i % 10, outcome.getIndex());
+            assertEquals(expected.get(i), outcome.isApplied());
+        }
+    }
+
+    @Test
+    void testKnobsAreTunableWhileRunning() throws Exception {
+        String[] messages = DifferentialHarness.generate(38, DifferentialHarness.WorkloadSpec.defaults(2000));
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        try (AsyncTransactionProcessorService service = new AsyncTransactionProcessorService(processor, 10_000, 0)) {
+            service.submit(request(messages)).get(5, TimeUnit.SECONDS);
+            assertEquals(10_000, service.getTargetBatchSize());
+
+            // A 1 us target cannot fit the configured maximum, so the adaptive cap shrinks
+            service.setMaxDelayMicros(1);
+            assertTrue(service.getTargetBatchSize() < 10_000);
+            assertTrue(service.getTargetBatchSize() >= AsyncTransactionProcessorService.MIN_ADAPTIVE_BATCH_SIZE);
+            service.setAdaptiveBatching(false);
+            assertEquals(10_000, service.getTargetBatchSize());
+            service.setMaxBatchSize(500);
+            assertEquals(500, service.getTargetBatchSize());
+            assertThrows(IllegalArgumentException.class, () -> service.setMaxBatchSize(0));
+        }
+    }
+
+    @Test
+    void testLatencyPercentilesAreReported() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        try (AsyncTransactionProcessorService service = new AsyncTransactionProcessorService(
+                new TransactionProcessor((message, status) -> { }), 1000, 1000, histogram)) {
+            // Seeded latencies: 1000 at 800 us and 100 at 5 ms
+            for (int i = 0; i < 1000; i++) {
+                histogram.record(TimeUnit.MICROSECONDS.toNanos(800));
+            }
+            for (int i = 0; i < 100; i++) {
+                histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+            assertWithinSixteenth(800, service.getP50LatencyMicros());
+            assertWithinSixteenth(5000, service.getP99LatencyMicros());
+
+            // Completed submissions are recorded too
+            service.submit(request("1010071234567000000100")).get(5, TimeUnit.SECONDS);
+            assertEquals(1101, histogram.count());
+
+            service.resetLatency();
+            assertEquals(0, service.getP99LatencyMicros());
+        }
+    }
+
+    @Test
+    void testSubmissionsRacingCloseAlwaysComplete() throws Exception {
+        AsyncTransactionProcessorService service = new AsyncTransactionProcessorService();
+        List<CompletableFuture<ProcessTransactionsResponse>> futures = new ArrayList<>();
+        Thread submitter = new Thread(() -> {
+            try {
+                while (true) {
+                    futures.add(service.submit(request("1010071234567000000100")));
+                }
+            } catch (IllegalStateException e) {
+                // Closed
+            }
+        });
+        submitter.start();
+        Thread.sleep(20);
+        service.close();
+        submitter.join();
+
+        // Every accepted submission is either applied or cancelled, never left pending
+        for (CompletableFuture<ProcessTransactionsResponse> future : futures) {
+            assertTrue(future.isDone());
+        }
+    }
+
+    @Test
+    void testClosedServiceRejectsSubmissions() {
+        AsyncTransactionProcessorService service = new AsyncTransactionProcessorService();
+        service.close();
+        assertThrows(IllegalStateException.class, () -> service.submit(request("1010071234567000000100")));
+    }
+
+    private static ProcessTransactionsRequest request(String... messages) {
+        return ProcessTransactionsRequest.builder().transactions(messages).build();
+    }
+
+    private static void assertWithinSixteenth(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                () -> String.format("expected about %d, got %d", expected, actual));
+    }
+}
@@ -100,4 +100,18 @@ class BankAccountTest {
         assertEquals(12000, account.getBalanceInCents());
         assertEquals(120.00, account.getBalanceInDollars(), 0.01);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testOutgoingTotalResetsInNewLimitWindow() {
+        BankAccount account = BankAccount.builder().accountNumber("1234567890").balanceInCents(100000).build();
+        assertTrue(account.withdraw(20000, 0));
+        assertTrue(account.transferOut(20000, 0));
+        assertTrue(account.withdraw(10000, 0));
+        assertFalse(account.withdraw(100, 0)); // $500.00 limit reached
+
+        assertEquals(0, account.getTotalOutInCents(1));
+        assertTrue(account.withdraw(20000, 1)); // New window starts from zero
+        assertEquals(20000, account.getTotalOutInCents(1));
+        assertEquals(30000, account.getBalanceInCents());
+    }
+}
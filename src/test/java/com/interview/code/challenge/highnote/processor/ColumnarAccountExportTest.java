@@ -0,0 +1,154 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+class ColumnarAccountExportTest {
+
+    @Test
+    void testRoundTripAcrossChunks() throws IOException {
+        Random random = new Random(40);
+        List<BankAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            accounts.add(BankAccount.builder()
+                    .accountNumber(String.valueOf(4_000_000_000L + random.nextInt(1_000_000_000)) + (i % 7 == 0 ? "-x" : ""))
+                    .balanceInCents(random.nextInt(10_000_000))
+                    .totalOutInCents(random.nextInt(50_001))
+                    .limitEpoch(3)
+                    .heldInCents(i % 11 == 0 ? random.nextInt(20_000) : 0)
+                    .build());
+        }
+        accounts.add(BankAccount.builder().accountNumber("9").balanceInCents(Long.MIN_VALUE).totalOutInCents(Long.MAX_VALUE).build());
+
+        byte[] export = export(new ColumnarAccountExporter(3, 512), accounts);
+        List<BankAccount> loaded = new ColumnarAccountLoader(2).load(Channels.newChannel(new ByteArrayInputStream(export)));
+
+        // Holds are not exported, so every account comes back with nothing held
+        List<BankAccount> expected = new ArrayList<>();
+        for (BankAccount account : accounts) {
+            expected.add(BankAccount.builder()
+                    .accountNumber(account.getAccountNumber())
+                    .balanceInCents(account.getBalanceInCents())
+                    .totalOutInCents(account.getTotalOutInCents())
+                    .limitEpoch(account.getLimitEpoch())
+                    .build());
+        }
+        expected.sort(Comparator.comparing(BankAccount::getAccountNumber));
+        assertEquals(expected, loaded);
+    }
+
+    @Test
+    void testExportIsSmallerThanText() throws IOException {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        processor.processMessages(DifferentialHarness.generate(40, new DifferentialHarness.WorkloadSpec(20_000, 2000, 0.5, 5, 3, 3, 0, 0.0, 0.0)));
+        StringBuilder text = new StringBuilder();
+        processor.forEachAccount(account -> text.append(account).append('\n'));
+
+        byte[] export = export(new ColumnarAccountExporter(), processor);
+        assertTrue(export.length * 4 < text.length(), () -> String.format("export %d bytes, text %d", export.length, text.length()));
+
+        List<BankAccount> loaded = new ColumnarAccountLoader().load(Channels.newChannel(new ByteArrayInputStream(export)));
+        assertEquals(processor.getAccounts().size(), loaded.size());
+        for (BankAccount account : loaded) {
+            assertEquals(processor.getAccount(account.getAccountNumber()), account);
+        }
+    }
+
+    @Test
+    void testEmptyAndTruncatedExports() throws IOException {
+        byte[] empty = export(new ColumnarAccountExporter(1, 16), List.of());
+        assertEquals(List.of(), new ColumnarAccountLoader(1).load(Channels.newChannel(new ByteArrayInputStream(empty))));
+
+        List<BankAccount> accounts = List.of(BankAccount.builder().accountNumber("123").balanceInCents(1).build());
+        byte[] full = export(new ColumnarAccountExporter(1, 16), accounts);
+        byte[] truncated = Arrays.copyOf(full, full.length - 1);
+        assertThrows(EOFException.class, () -> new ColumnarAccountLoader(1).load(Channels.newChannel(new ByteArrayInputStream(truncated))));
+    }
+
+    @Test
+    void testCorruptChunksAreReportedAsIOException() throws IOException {
+        List<BankAccount> accounts = List.of(
+                BankAccount.builder().accountNumber("123").balanceInCents(1).build(),
+                BankAccount.builder().accountNumber("124").balanceInCents(2).build());
+        byte[] full = export(new ColumnarAccountExporter(1, 16), accounts);
+        int lengthOffset = ColumnarAccountExporter.HEADER_SIZE + Integer.BYTES;
+        int payloadOffset = ColumnarAccountExporter.HEADER_SIZE + ColumnarAccountExporter.FRAME_HEADER_SIZE;
+
+        // A garbled payload must not escape as an index or allocation failure
+        byte[] garbled = full.clone();
+        Arrays.fill(garbled, payloadOffset, garbled.length, (byte) 0xFF);
+        IOException failure = assertThrows(IOException.class, () -> load(garbled));
+        assertTrue(failure.getMessage().startsWith("Corrupt chunk 0"), failure::getMessage);
+
+        // A payload with bytes left over after the last column
+        byte[] padded = Arrays.copyOf(full, full.length + 1);
+        ByteBuffer.wrap(padded).putInt(lengthOffset, full.length - payloadOffset + 1);
+        failure = assertThrows(IOException.class, () -> load(padded));
+        assertTrue(failure.getMessage().contains("left over"), failure::getMessage);
+
+        // A frame length beyond the cap is refused before anything is allocated for it
+        byte[] oversized = full.clone();
+        ByteBuffer.wrap(oversized).putInt(lengthOffset, Integer.MAX_VALUE);
+        failure = assertThrows(IOException.class, () -> load(oversized));
+        assertTrue(failure.getMessage().startsWith("Corrupt chunk frame 0"), failure::getMessage);
+    }
+
+    @Test
+    void testDiskBookIsExportedWithoutDisturbingTheCache() throws IOException {
+        Path path = Files.createTempFile("accounts", ".dat");
+        Files.write(path, new byte[0]);
+        try (TieredAccountStore store = new TieredAccountStore(path, 8, 4096)) {
+            TransactionProcessor processor = new TransactionProcessor(store, (message, status) -> { });
+            processor.processMessages(DifferentialHarness.generate(41, new DifferentialHarness.WorkloadSpec(5000, 500, 0.5, 5, 3, 3, 0, 0.0, 0.0)));
+
+            long misses = store.getMissCount();
+            long evictions = store.getEvictionCount();
+            byte[] streamed = export(new ColumnarAccountExporter(2, 16), processor);
+
+            // Accounts are read from disk without going through the cache
+            assertEquals(misses, store.getMissCount());
+            assertEquals(evictions, store.getEvictionCount());
+            byte[] whole = export(new ColumnarAccountExporter(2, 16), new ArrayList<>(processor.getAccounts().values()));
+            assertArrayEquals(whole, streamed);
+            assertEquals(processor.getAccounts().size(), load(streamed).size());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static List<BankAccount> load(byte[] export) throws IOException {
+        return new ColumnarAccountLoader(2).load(Channels.newChannel(new ByteArrayInputStream(export)));
+    }
+
+    private static byte[] export(ColumnarAccountExporter exporter, List<BankAccount> accounts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(accounts, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] export(ColumnarAccountExporter exporter, TransactionProcessor processor) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(processor, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,231 @@
+package com.interview.code.challenge.highnote.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.Transaction;
+
+/**
+ * Seeded workload generator and differential runner for comparing engine variants against the
+ * sequential reference {@link TransactionProcessor}. Mismatching inputs are shrunk to a minimal
+ * failing message list so failures are easy to read.
+ */
+final class DifferentialHarness {
+    /**
+     * Amounts sitting on or next to the business limits.
+     */
+    private static final long[] EDGE_AMOUNTS = {0, 1, 9999, 10000, 19999, 20000, 20001, 49999, 50000, 50001, 99999, 100000, 100001};
+    /**
+     * Hold, capture, release and reversal codes; releases are rarer so more holds live to be captured and reversed.
+     */
+    private static final String[] HOLD_CODES = {"3010", "3010", "3020", "3020", "3030", "3040", "3040"};
+    /**
+     * Typical amount limit for each hold code; captures and reversals are smaller so they often fit the hold or capture they name.
+     */
+    private static final long[] HOLD_CODE_AMOUNT_LIMITS = {20000, 10000, 20000, 3000};
+
+    private DifferentialHarness() {
+    }
+
+    /**
+     * An engine under test: applies raw messages to a fresh book and reports what happened.
+     */
+    @FunctionalInterface
+    interface Engine {
+        EngineRun run(String[] messages);
+    }
+
+    /**
+     * Final non-zero balances by account and, when the engine reports them, per-message outcomes.
+     */
+    record EngineRun(Map<String, Long> balances, List<Boolean> outcomes) {
+    }
+
+    /**
+     * Shape of a generated workload. The hold weight is shared by holds, captures, releases and reversals.
+     */
+    record WorkloadSpec(int transactions, int accounts, double zipfExponent, int depositWeight,
+                        int withdrawalWeight, int transferWeight, int holdWeight, double edgeAmountRatio, double corruptRatio) {
+
+        static WorkloadSpec defaults(int transactions) {
+            return new WorkloadSpec(transactions, 50, 1.1, 5, 3, 3, 4, 0.2, 0.02);
+        }
+    }
+
+    /**
+     * Result of a differential run: the shrunk failing input and a description of the first difference.
+     */
+    record Mismatch(List<String> messages, String description) {
+    }
+
+    /**
+     * Runs the sequential reference: parse each message into a {@link Transaction} and apply it.
+     */
+    static EngineRun reference(String[] messages) {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        List<Boolean> outcomes = new ArrayList<>(messages.length);
+        for (String message : messages) {
+            List<Transaction> parsed = processor.parseTransaction(new String[] {message});
+            outcomes.add(!parsed.isEmpty() && processor.processTransaction(parsed.get(0)));
+        }
+        return new EngineRun(balances(processor.getNonZeroAccountsSorted()), outcomes);
+    }
+
+    /**
+     * Collects non-zero balances into a sorted map so runs compare independent of iteration order.
+     */
+    static Map<String, Long> balances(List<BankAccount> accounts) {
+        Map<String, Long> balances = new TreeMap<>();
+        accounts.stream()
+                .filter(account -> account.getBalanceInCents() != 0)
+                .forEach(account -> balances.put(account.getAccountNumber(), account.getBalanceInCents()));
+        return balances;
+    }
+
+    /**
+     * Generates a deterministic workload for the given seed.
+     */
+    static String[] generate(long seed, WorkloadSpec spec) {
+        Random random = new Random(seed);
+        double[] cumulative = zipfCumulative(spec.accounts(), spec.zipfExponent());
+        int totalWeight = spec.depositWeight() + spec.withdrawalWeight() + spec.transferWeight() + spec.holdWeight();
+        String[] messages = new String[spec.transactions()];
+        // Holds placed so far per account, so captures, releases and reversals mostly name a real hold
+        int[] holdsPlaced = new int[spec.accounts()];
+
+        for (int i = 0; i < messages.length; i++) {
+            int pick = random.nextInt(totalWeight);
+            int accountIndex = sample(random, cumulative);
+            String account = accountNumber(accountIndex);
+            String message;
+            if (pick < spec.depositWeight()) {
+                message = "1010" + llvar(account) + amount(random, spec, 100000);
+            } else if (pick < spec.depositWeight() + spec.withdrawalWeight()) {
+                message = "1020" + llvar(account) + amount(random, spec, 20000);
+            } else if (pick < spec.depositWeight() + spec.withdrawalWeight() + spec.transferWeight()) {
+                String destination = accountNumber(sample(random, cumulative));
+                message = "2010" + llvar(account) + llvar(destination) + amount(random, spec, 20000);
+            } else {
+                // Hold, capture, release or reversal of the latest hold on the account or the one before it
+                String code = HOLD_CODES[random.nextInt(HOLD_CODES.length)];
+                if (code.equals("3010")) {
+                    holdsPlaced[accountIndex]++;
+                }
+                String holdId = "h" + Math.max(0, holdsPlaced[accountIndex] - random.nextInt(2));
+                message = code + llvar(account) + llvar(holdId) + amount(random, spec, HOLD_CODE_AMOUNT_LIMITS[code.charAt(2) - '1']);
+            }
+            messages[i] = random.nextDouble() < spec.corruptRatio() ? corrupt(random, message) : message;
+        }
+        return messages;
+    }
+
+    /**
+     * Runs both engines and, if they disagree, shrinks the input to a minimal disagreeing message list.
+     */
+    static Optional<Mismatch> compare(Engine reference, Engine candidate, String[] messages) {
+        if (describe(reference, candidate, messages).isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> shrunk = shrink(reference, candidate, Arrays.asList(messages));
+        String[] minimal = shrunk.toArray(new String[0]);
+        return Optional.of(new Mismatch(shrunk, describe(reference, candidate, minimal).orElse("flaky mismatch")));
+    }
+
+    /**
+     * Describes the first difference between two engines on the same input, if any.
+     */
+    private static Optional<String> describe(Engine reference, Engine candidate, String[] messages) {
+        EngineRun expected = reference.run(messages);
+        EngineRun actual = candidate.run(messages);
+        if (Objects.nonNull(expected.outcomes()) && Objects.nonNull(actual.outcomes())) {
+            for (int i = 0; i < messages.length; i++) {
+                if (!expected.outcomes().get(i).equals(actual.outcomes().get(i))) {
+                    return Optional.of(String.format("outcome of message %d (%s): expected %s, got %s",
+                            i, messages[i], expected.outcomes().get(i), actual.outcomes().get(i)));
+                }
+            }
+        }
+        if (!expected.balances().equals(actual.balances())) {
+            return Optional.of(String.format("balances: expected %s, got %s", expected.balances(), actual.balances()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Delta-debugging style shrink: repeatedly drops chunks of messages while the mismatch persists,
+     * halving the chunk size until single messages can no longer be removed.
+     */
+    private static List<String> shrink(Engine reference, Engine candidate, List<String> messages) {
+        List<String> current = new ArrayList<>(messages);
+        int chunk = Math.max(1, current.size() / 2);
+        while (chunk >= 1) {
+            boolean removed = false;
+            for (int start = 0; start < current.size(); ) {
+                List<String> attempt = new ArrayList<>(current.subList(0, start));
+                attempt.addAll(current.subList(Math.min(current.size(), start + chunk), current.size()));
+                if (describe(reference, candidate, attempt.toArray(new String[0])).isPresent()) {
+                    current = attempt;
+                    removed = true;
+                } else {
+                    start += chunk;
+                }
+            }
+            if (!removed) {
+                chunk /= 2;
+            }
+        }
+        return current;
+    }
+
+    private static double[] zipfCumulative(int accounts, double exponent) {
+        double[] cumulative = new double[accounts];
+        double sum = 0;
+        for (int i = 0; i < accounts; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < accounts; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static String accountNumber(int index) {
+        return String.valueOf(1000000 + index);
+    }
+
+    private static String llvar(String value) {
+        return String.format("%02d%s", value.length(), value);
+    }
+
+    private static String amount(Random random, WorkloadSpec spec, long perTransactionLimit) {
+        long amount = random.nextDouble() < spec.edgeAmountRatio()
+                ? EDGE_AMOUNTS[random.nextInt(EDGE_AMOUNTS.length)]
+                : 1 + (long) (random.nextDouble() * perTransactionLimit * 1.1);
+        return String.format("%010d", amount);
+    }
+
+    /**
+     * Damages a message by truncating it or replacing one character.
+     */
+    private static String corrupt(Random random, String message) {
+        int position = random.nextInt(message.length());
+        if (random.nextBoolean()) {
+            return message.substring(0, position);
+        }
+        char replacement = "X -9".charAt(random.nextInt(4));
+        return message.substring(0, position) + replacement + message.substring(position + 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.processor.DifferentialHarness.Engine;
+import com.interview.code.challenge.highnote.processor.DifferentialHarness.EngineRun;
+import com.interview.code.challenge.highnote.processor.DifferentialHarness.Mismatch;
+import com.interview.code.challenge.highnote.processor.DifferentialHarness.WorkloadSpec;
+
+class DifferentialTest {
+    private static final Engine REFERENCE = DifferentialHarness::reference;
+
+    private static final Engine CURSOR = messages -> {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        List<Boolean> outcomes = new ArrayList<>(messages.length);
+        for (String message : messages) {
+            outcomes.add(processor.processMessage(message));
+        }
+        return new EngineRun(DifferentialHarness.balances(processor.getNonZeroAccountsSorted()), outcomes);
+    };
+
+    private static final Engine BATCH = messages -> {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        boolean[] applied = new boolean[messages.length];
+        processor.applyMessages(messages, 0, messages.length, applied);
+        List<Boolean> outcomes = new ArrayList<>(messages.length);
+        for (boolean outcome : applied) {
+            outcomes.add(outcome);
+        }
+        return new EngineRun(DifferentialHarness.balances(processor.getNonZeroAccountsSorted()), outcomes);
+    };
+
+    private static final Engine SERVICE = messages -> new EngineRun(DifferentialHarness.balances(
+            new TransactionProcessorService()
+                    .processTransactions(ProcessTransactionsRequest.builder().transactions(messages).build())
+                    .getBankAccounts()), null);
+
+    @Test
+    void testCursorEngineMatchesReference() {
+        for (long seed = 1; seed <= 25; seed++) {
+            String[] messages = DifferentialHarness.generate(seed, WorkloadSpec.defaults(400));
+            assertNoMismatch(seed, DifferentialHarness.compare(REFERENCE, CURSOR, messages));
+        }
+    }
+
+    @Test
+    void testHotAccountCoalescingMatchesReference() {
+        // Few accounts with heavy skew and mostly deposits, so long deposit runs into hot accounts occur
+        WorkloadSpec skewed = new WorkloadSpec(2000, 5, 2.0, 8, 2, 1, 1, 0.2, 0.02);
+        for (long seed = 50; seed <= 60; seed++) {
+            String[] messages = DifferentialHarness.generate(seed, skewed);
+            assertNoMismatch(seed, DifferentialHarness.compare(REFERENCE, BATCH, messages));
+        }
+    }
+
+    @Test
+    void testServiceMatchesReference() {
+        for (long seed = 100; seed <= 110; seed++) {
+            String[] messages = DifferentialHarness.generate(seed, WorkloadSpec.defaults(400));
+            assertNoMismatch(seed, DifferentialHarness.compare(REFERENCE, SERVICE, messages));
+        }
+    }
+
+    @Test
+    void testSchedulerMatchesReference() throws Exception {
+        try (TenantBatchScheduler scheduler = new TenantBatchScheduler(2, 16)) {
+            Engine engine = messages -> {
+                try {
+                    String tenant = "tenant-" + System.nanoTime();
+                    List<BankAccount> accounts = scheduler
+                            .submit(tenant, ProcessTransactionsRequest.builder().transactions(messages).build())
+                            .get()
+                            .getBankAccounts();
+                    return new EngineRun(DifferentialHarness.balances(accounts), null);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+            for (long seed = 200; seed <= 205; seed++) {
+                String[] messages = DifferentialHarness.generate(seed, WorkloadSpec.defaults(400));
+                assertNoMismatch(seed, DifferentialHarness.compare(REFERENCE, engine, messages));
+            }
+        }
+    }
+
+    @Test
+    void testPartitionedEngineMatchesReference() {
+        Engine partitioned = messages -> {
+            // A fresh engine per run so shrinking replays against an empty book
+            try (PartitionedTransactionEngine engine = new PartitionedTransactionEngine(4, List.of(), (message, status) -> { })) {
+                boolean[] applied = new boolean[messages.length];
+                engine.applyMessages(messages, applied);
+                List<Boolean> outcomes = new ArrayList<>(messages.length);
+                for (boolean outcome : applied) {
+                    outcomes.add(outcome);
+                }
+                return new EngineRun(DifferentialHarness.balances(engine.getNonZeroAccountsSorted()), outcomes);
+            }
+        };
+        for (long seed = 300; seed <= 315; seed++) {
+            String[] messages = DifferentialHarness.generate(seed, WorkloadSpec.defaults(400));
+            assertNoMismatch(seed, DifferentialHarness.compare(REFERENCE, partitioned, messages));
+        }
+    }
+
+    @Test
+    void testMismatchIsShrunkToMinimalInput() {
+        // A broken engine that ignores the total outgoing limit
+        Engine broken = messages -> {
+            TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+            List<Boolean> outcomes = new ArrayList<>(messages.length);
+            for (String message : messages) {
+                boolean applied = processor.processMessage(message);
+                if (!applied && message.startsWith("1020")) {
+                    BankAccount account = processor.getAccount(message.substring(6, 13));
+                    long amount = Long.parseLong(message.substring(13));
+                    if (account != null && amount > 0 && amount <= 20000 && account.getBalanceInCents() >= amount) {
+                        account.setBalanceInCents(account.getBalanceInCents() - amount);
+                        applied = true;
+                    }
+                }
+                outcomes.add(applied);
+            }
+            return new EngineRun(DifferentialHarness.balances(processor.getNonZeroAccountsSorted()), outcomes);
+        };
+
+        WorkloadSpec spec = new WorkloadSpec(300, 3, 1.0, 6, 6, 0, 0, 0.0, 0.0);
+        Optional<Mismatch> mismatch = DifferentialHarness.compare(REFERENCE, broken, DifferentialHarness.generate(7, spec));
+
+        assertTrue(mismatch.isPresent());
+        // Exceeding the $500 limit needs a funding deposit plus three withdrawals that pass every other rule
+        assertTrue(mismatch.get().messages().size() <= 6, mismatch.get().toString());
+        assertEquals(mismatch.get().messages(), DifferentialHarness.compare(REFERENCE, broken,
+                mismatch.get().messages().toArray(new String[0])).get().messages());
+    }
+
+    private static void assertNoMismatch(long seed, Optional<Mismatch> mismatch) {
+        assertTrue(mismatch.isEmpty(), () -> "seed " + seed + ": " + mismatch.get());
+    }
+}
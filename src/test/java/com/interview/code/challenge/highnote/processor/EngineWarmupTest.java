@@ -0,0 +1,35 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.TransactionType;
+
+class EngineWarmupTest {
+
+    @Test
+    void testWorkloadAppliesEveryMessageType() {
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> { });
+        Set<TransactionType> applied = EnumSet.noneOf(TransactionType.class);
+        for (String message : EngineWarmup.workload()) {
+            TransactionType type = TransactionType.fromMessage(message);
+            if (processor.processMessage(message) && Objects.nonNull(type)) {
+                applied.add(type);
+            }
+        }
+
+        assertEquals(EnumSet.allOf(TransactionType.class), applied);
+        assertTrue(processor.getQuarantinedCount() > 0);
+    }
+
+    @Test
+    void testRunCountsEveryAppliedMessage() {
+        assertEquals(2 * EngineWarmup.run(1), EngineWarmup.run(2));
+    }
+}
@@ -0,0 +1,55 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HoldLedgerTest {
+
+    @Test
+    void testHoldsExpireWhenTheirTimeIsPassed() {
+        HoldLedger ledger = new HoldLedger();
+        ledger.place("1", "a", 100, 100);
+        ledger.place("1", "b", 100, 5000);
+        ledger.place("2", "a", 100, 1_000_000);
+        List<String> expired = new ArrayList<>();
+
+        ledger.advance(99, hold -> expired.add(hold.getHoldId()));
+        assertEquals(List.of(), expired);
+        ledger.advance(100, hold -> expired.add(hold.getAccountNumber() + hold.getHoldId()));
+        assertEquals(List.of("1a"), expired);
+
+        // Jumping past a full wheel turn still finds holds due and keeps later ones
+        ledger.advance(900_000, hold -> expired.add(hold.getAccountNumber() + hold.getHoldId()));
+        assertEquals(List.of("1a", "1b"), expired);
+        assertEquals(1, ledger.getPendingCount());
+        ledger.advance(1_000_000, hold -> expired.add(hold.getAccountNumber() + hold.getHoldId()));
+        assertEquals(List.of("1a", "1b", "2a"), expired);
+        assertEquals(0, ledger.size());
+    }
+
+    @Test
+    void testCapturedAndRemovedHoldsAreNotExpiredAsPending() {
+        HoldLedger ledger = new HoldLedger();
+        HoldLedger.Hold captured = ledger.place("1", "a", 500, 100);
+        HoldLedger.Hold released = ledger.place("1", "b", 500, 100);
+        assertNull(ledger.place("1", "a", 1, 100));
+
+        ledger.capture(captured, 300, 10_000);
+        ledger.remove(released);
+        assertEquals(0, ledger.getPendingCount());
+
+        List<HoldLedger.Hold> expired = new ArrayList<>();
+        ledger.advance(200, expired::add);
+        assertEquals(List.of(), expired);
+        ledger.reverse(captured, 100);
+        assertEquals(200, captured.getCapturedInCents());
+        ledger.advance(10_000, expired::add);
+        assertEquals(List.of(captured), expired);
+        assertNull(ledger.get("1", "a"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(10_000, histogram.count());
+        assertWithinSixteenth(5_000_000, histogram.percentile(50));
+        assertWithinSixteenth(9_900_000, histogram.percentile(99));
+        assertWithinSixteenth(10_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    void testSmallValuesAreExactAndResetClears() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5);
+        assertEquals(0, histogram.percentile(1));
+        assertEquals(7, histogram.percentile(100));
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(101));
+    }
+
+    private static void assertWithinSixteenth(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                () -> String.format("expected about %d, got %d", expected, actual));
+    }
+}
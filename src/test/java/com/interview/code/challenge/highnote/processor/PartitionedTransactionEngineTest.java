@@ -0,0 +1,242 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.processor.DifferentialHarness.WorkloadSpec;
+
+class PartitionedTransactionEngineTest {
+    private PartitionedTransactionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new PartitionedTransactionEngine(4, Collections.emptyList(), (message, status) -> { });
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void testCrossPartitionTransfersMatchSequentialProcessor() {
+        // Many accounts so most transfers cross partitions, applied over several batches
+        String[] messages = randomMessages(42, 64, 5000, false);
+        TransactionProcessor reference = new TransactionProcessor((message, status) -> { });
+        for (int from = 0; from < messages.length; from += 1000) {
+            String[] batch = Arrays.copyOfRange(messages, from, from + 1000);
+            boolean[] expected = new boolean[batch.length];
+            for (int i = 0; i < batch.length; i++) {
+                expected[i] = reference.processMessage(batch[i]);
+            }
+            boolean[] applied = new boolean[batch.length];
+            engine.applyMessages(batch, applied);
+            assertArrayEquals(expected, applied);
+        }
+
+        assertEquals(DifferentialHarness.balances(reference.getNonZeroAccountsSorted()),
+                DifferentialHarness.balances(engine.getNonZeroAccountsSorted()));
+        assertTrue(engine.getCrossPartitionTransferCount() > 0);
+        assertEquals(reference.getQuarantinedCount(), engine.getQuarantinedCount());
+    }
+
+    @Test
+    void testPipelinedSubmissionsMatchSequentialProcessor() {
+        // Batches spanning several routing runs, submitted back to back so routing overlaps with applying
+        String[] messages = randomMessages(11, 256, 3 * PartitionedTransactionEngine.ROUTE_CHUNK + 500, true);
+        TransactionProcessor reference = new TransactionProcessor((message, status) -> { });
+        boolean[] expected = new boolean[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            expected[i] = reference.processMessage(messages[i]);
+        }
+
+        int[] cuts = {0, 700, PartitionedTransactionEngine.ROUTE_CHUNK + 701, messages.length};
+        List<boolean[]> outcomes = new ArrayList<>();
+        List<CompletableFuture<Void>> submitted = new ArrayList<>();
+        for (int b = 0; b + 1 < cuts.length; b++) {
+            boolean[] applied = new boolean[cuts[b + 1] - cuts[b]];
+            outcomes.add(applied);
+            submitted.add(engine.submit(Arrays.copyOfRange(messages, cuts[b], cuts[b + 1]), applied));
+        }
+        CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0])).join();
+
+        for (int b = 0; b + 1 < cuts.length; b++) {
+            assertArrayEquals(Arrays.copyOfRange(expected, cuts[b], cuts[b + 1]), outcomes.get(b));
+        }
+        assertEquals(DifferentialHarness.balances(reference.getNonZeroAccountsSorted()),
+                DifferentialHarness.balances(engine.getNonZeroAccountsSorted()));
+        assertEquals(reference.getPendingHoldCount(), engine.getPendingHoldCount());
+    }
+
+    @Test
+    void testEmptySubmissionDoesNotHideBatchesInFlight() {
+        TransactionProcessor reference = new TransactionProcessor((message, status) -> { });
+        for (int round = 0; round < 20; round++) {
+            String[] messages = randomMessages(12 + round, 256, PartitionedTransactionEngine.ROUTE_CHUNK, false);
+            reference.processMessages(messages);
+            engine.submit(messages, null);
+            engine.submit(new String[0], null);
+
+            // Reads wait for the first batch even though the empty submission finished at once
+            assertEquals(DifferentialHarness.balances(reference.getNonZeroAccountsSorted()),
+                    DifferentialHarness.balances(engine.getNonZeroAccountsSorted()));
+        }
+    }
+
+    @Test
+    void testWorkerFailureStopsTheEngine() {
+        String[] messages = randomMessages(13, 64, 2000, false);
+        // Too short for the batch, so recording an outcome throws on whichever worker gets there first
+        CompletableFuture<Void> failed = engine.submit(messages, new boolean[1]);
+
+        assertThrows(CompletionException.class, failed::join);
+        IllegalStateException rejected = assertThrows(IllegalStateException.class, () -> engine.submit(messages, null));
+        assertTrue(rejected.getCause() instanceof ArrayIndexOutOfBoundsException);
+        assertThrows(IllegalStateException.class, () -> engine.getAccount("1000000"));
+        assertThrows(IllegalStateException.class, () -> engine.getNonZeroAccountsSorted());
+    }
+
+    @Test
+    void testHoldsMatchSequentialProcessor() {
+        String[] messages = randomMessages(7, 16, 4000, true);
+        TransactionProcessor reference = new TransactionProcessor((message, status) -> { });
+        boolean[] expected = new boolean[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            expected[i] = reference.processMessage(messages[i]);
+        }
+        boolean[] applied = new boolean[messages.length];
+        engine.applyMessages(messages, applied);
+
+        assertArrayEquals(expected, applied);
+        assertEquals(reference.getPendingHoldCount(), engine.getPendingHoldCount());
+        for (BankAccount account : reference.getNonZeroAccountsSorted()) {
+            BankAccount copy = engine.getAccount(account.getAccountNumber());
+            assertEquals(account.getBalanceInCents(), copy.getBalanceInCents());
+            assertEquals(account.getHeldInCents(), copy.getHeldInCents());
+            assertEquals(account.getTotalOutInCents(), copy.getTotalOutInCents());
+        }
+
+        reference.advanceHoldClock(TransactionProcessor.DEFAULT_HOLD_TTL_SECONDS + 1);
+        engine.advanceHoldClock(TransactionProcessor.DEFAULT_HOLD_TTL_SECONDS + 1);
+        assertEquals(0, engine.getPendingHoldCount());
+        for (BankAccount account : reference.getNonZeroAccountsSorted()) {
+            assertEquals(0, engine.getAccount(account.getAccountNumber()).getHeldInCents());
+        }
+    }
+
+    @Test
+    void testTransferDestinationMustBeOpenedByEarlierDeposit() {
+        boolean[] applied = new boolean[4];
+        engine.applyMessages(new String[] {
+                "10101011111111110000010000",
+                "2010" + llvar("1111111111") + llvar("2222222222") + "0000001000",
+                "10101022222222220000000000",
+                "2010" + llvar("1111111111") + llvar("2222222222") + "0000001000"}, applied);
+
+        assertArrayEquals(new boolean[] {true, false, false, true}, applied);
+        assertEquals(9000, engine.getAccount("1111111111").getBalanceInCents());
+        assertEquals(1000, engine.getAccount("2222222222").getBalanceInCents());
+        assertEquals(2, engine.getAccountCount());
+        assertNull(engine.getAccount("3333333333"));
+    }
+
+    @Test
+    void testAccountsSpreadAcrossWorkers() {
+        String[] deposits = new String[1000];
+        for (int i = 0; i < deposits.length; i++) {
+            deposits[i] = "1010" + "10" + (1_000_000_000L + i) + "0000000100";
+        }
+        engine.applyMessages(deposits, null);
+
+        int[] counts = engine.getAccountCountsByWorker();
+        assertEquals(4, counts.length);
+        for (int count : counts) {
+            assertTrue(count > 150, () -> Arrays.toString(counts));
+        }
+        assertEquals(1000, engine.getNonZeroAccountsSorted().size());
+    }
+
+    @Test
+    void testArenasGrowPastTheirInitialCapacity() {
+        // Several thousand accounts per worker, so every arena reallocates its off-heap buffers more than once
+        String[] deposits = new String[20_000];
+        for (int i = 0; i < deposits.length; i++) {
+            deposits[i] = "1010" + "10" + (2_000_000_000L + i) + String.format("%010d", 1 + i % 1000);
+        }
+        engine.applyMessages(deposits, null);
+
+        assertEquals(deposits.length, engine.getAccountCount());
+        for (int i = 0; i < deposits.length; i += 97) {
+            assertEquals(1 + i % 1000, engine.getAccount(String.valueOf(2_000_000_000L + i)).getBalanceInCents());
+        }
+    }
+
+    @Test
+    void testOutgoingLimitResetsWithLimitWindow() {
+        List<String> messages = new ArrayList<>();
+        messages.add("10101044444444440000100000");
+        for (int i = 0; i < 3; i++) {
+            messages.add("10201044444444440000020000");
+        }
+        boolean[] applied = new boolean[4];
+        engine.applyMessages(messages.toArray(new String[0]), applied);
+        assertArrayEquals(new boolean[] {true, true, true, false}, applied);
+
+        engine.rollLimitWindow();
+        engine.applyMessages(new String[] {"10201044444444440000020000"}, applied);
+        assertTrue(applied[0]);
+        assertEquals(40000, engine.getAccount("4444444444").getBalanceInCents());
+    }
+
+    @Test
+    void testCpuListsAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedTransactionEngine(2, List.of("0")));
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedTransactionEngine(2, List.of("0", "cpu1")));
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedTransactionEngine(0, Collections.emptyList()));
+    }
+
+    @Test
+    void testPinnedWorkersApplyTransactions() {
+        // Pinning is best effort, so only the results are checked on hosts without taskset
+        try (PartitionedTransactionEngine pinned = new PartitionedTransactionEngine(2, List.of("0", "0"))) {
+            pinned.applyMessages(new String[] {"10101055555555550000001000"}, null);
+            assertEquals(1000, pinned.getAccount("5555555555").getBalanceInCents());
+            assertTrue(pinned.getPinnedWorkerCount() <= 2);
+        }
+    }
+
+    @Test
+    void testClosedEngineRejectsMessages() {
+        engine.close();
+        assertThrows(IllegalStateException.class, () -> engine.applyMessages(new String[0], null));
+    }
+
+    /**
+     * Generates deposits, withdrawals and transfers, plus holds and their follow-ups when requested.
+     */
+    /**
+     * Uniformly spread workload from the differential generator, so every account is as likely to be on any worker.
+     */
+    private static String[] randomMessages(long seed, int accounts, int count, boolean holds) {
+        return DifferentialHarness.generate(seed, new WorkloadSpec(count, accounts, 0.0, 5, 3, 3, holds ? 4 : 0, 0.2, 0.02));
+    }
+
+    private static String llvar(String value) {
+        return String.format("%02d%s", value.length(), value);
+    }
+}
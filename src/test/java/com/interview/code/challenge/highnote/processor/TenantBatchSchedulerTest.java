@@ -0,0 +1,113 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
+import com.interview.code.challenge.highnote.model.ProcessTransactionsResponse;
+
+class TenantBatchSchedulerTest {
+    private TenantBatchScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // Small quantum so batches are interleaved across tenants and workers
+        scheduler = new TenantBatchScheduler(3, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void testTenantsMatchSequentialService() throws Exception {
+        String[] files = {"mix_transaction_input.txt", "deposit_withdrawal_input.txt", "deposit_only_input.txt"};
+        List<CompletableFuture<ProcessTransactionsResponse>> futures = new ArrayList<>();
+        for (String file : files) {
+            futures.add(scheduler.submit(file, request(loadFileLines(file))));
+        }
+
+        for (int i = 0; i < files.length; i++) {
+            ProcessTransactionsResponse expected = new TransactionProcessorService()
+                    .processTransactions(request(loadFileLines(files[i])));
+            assertEquals(balances(expected), balances(futures.get(i).get()));
+        }
+        assertEquals(3, scheduler.getTenantIds().size());
+    }
+
+    @Test
+    void testBatchesOfOneTenantApplyInOrder() throws Exception {
+        List<CompletableFuture<ProcessTransactionsResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(scheduler.submit("payroll", request(new String[] {"10101088888888880000001000"})));
+            scheduler.submit("settlement", request(new String[] {"10101099999999990000002000"}));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            Map<String, Long> balances = balances(futures.get(i).get());
+            assertEquals(1000L * (i + 1), (long) balances.get("8888888888"));
+        }
+        CompletableFuture.allOf(scheduler.submit("settlement", request(new String[0]))).get();
+        assertEquals(40000, scheduler.getProcessor("settlement").getAccount("9999999999").getBalanceInCents());
+        assertNull(scheduler.getProcessor("payroll").getAccount("9999999999"));
+    }
+
+    @Test
+    void testSubmitAfterCloseIsRejected() {
+        scheduler.close();
+        assertThrows(IllegalStateException.class, () -> scheduler.submit("late", request(new String[0])));
+    }
+
+    @Test
+    void testBatchesRacingCloseAlwaysComplete() throws Exception {
+        List<CompletableFuture<ProcessTransactionsResponse>> futures = new ArrayList<>();
+        Thread submitter = new Thread(() -> {
+            try {
+                while (true) {
+                    futures.add(scheduler.submit("racer", request(new String[] {"10101088888888880000001000"})));
+                }
+            } catch (IllegalStateException e) {
+                // Closed
+            }
+        });
+        submitter.start();
+        Thread.sleep(20);
+        scheduler.close();
+        submitter.join();
+
+        // Every batch accepted before or during close is either applied or cancelled, never stranded
+        for (CompletableFuture<ProcessTransactionsResponse> future : futures) {
+            assertTrue(future.isDone());
+        }
+    }
+
+    private static ProcessTransactionsRequest request(String[] messages) {
+        return ProcessTransactionsRequest.builder().transactions(messages).build();
+    }
+
+    private static Map<String, Long> balances(ProcessTransactionsResponse response) {
+        return response.getBankAccounts().stream()
+                .collect(Collectors.toMap(BankAccount::getAccountNumber, BankAccount::getBalanceInCents));
+    }
+
+    private static String[] loadFileLines(String fileName) throws IOException {
+        return Files.readAllLines(Path.of("src/test/resources", fileName)).toArray(new String[0]);
+    }
+}
@@ -0,0 +1,233 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+
+class TieredAccountStoreTest {
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("accounts", ".dat");
+        // DiskAccountFile treats an empty file as new
+        Files.write(path, new byte[0]);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void testEvictedAccountsAreWrittenBackAndReloaded() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 2, 64, 1)) {
+            for (int i = 0; i < 5; i++) {
+                store.put(account("10000" + i, 100 * (i + 1)));
+            }
+            assertEquals(2, store.getResidentCount());
+            assertEquals(3, store.getEvictionCount());
+            assertEquals(3, store.getWriteBackCount());
+
+            BankAccount reloaded = store.get("100000");
+            assertEquals(100, reloaded.getBalanceInCents());
+            assertEquals(1, store.getMissCount());
+            assertNull(store.get("999999"));
+        }
+    }
+
+    @Test
+    void testChangesSurviveReopen() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            BankAccount account = account("123456", 500);
+            store.put(account);
+            account.deposit(250);
+            store.markDirty(account);
+        }
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            assertEquals(750, store.get("123456").getBalanceInCents());
+            assertEquals(0, store.getHitCount());
+            store.get("123456");
+            assertEquals(1, store.getHitCount());
+        }
+    }
+
+    @Test
+    void testHoldsAreReleasedOnReopen() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            BankAccount account = account("123456", 500);
+            account.setHeldInCents(200);
+            store.put(account);
+            store.put(account("654321", 100));
+        }
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            // The hold ledger did not survive, so nothing may stay reserved against the balance
+            assertEquals(0, store.get("123456").getHeldInCents());
+            assertEquals(500, store.get("123456").getBalanceInCents());
+            assertEquals(100, store.get("654321").getBalanceInCents());
+        }
+    }
+
+    @Test
+    void testChangeToEvictedAccountIsNotLost() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 1, 64)) {
+            store.put(account("111111", 1000));
+            store.put(account("222222", 1000));
+            store.flush();
+
+            // Same access pattern as a transfer: loading the destination evicts the source
+            BankAccount source = store.get("111111");
+            BankAccount destination = store.get("222222");
+            source.transferOut(400, 0);
+            store.markDirty(source);
+            destination.deposit(400);
+            store.markDirty(destination);
+
+            Map<String, Long> balances = new HashMap<>();
+            store.forEach(account -> balances.put(account.getAccountNumber(), account.getBalanceInCents()));
+            assertEquals(Map.of("111111", 600L, "222222", 1400L), balances);
+        }
+    }
+
+    @Test
+    void testProcessorOnTinyCacheMatchesInMemoryBook() throws IOException {
+        String[] messages = DifferentialHarness.generate(35, DifferentialHarness.WorkloadSpec.defaults(3000));
+        Map<String, Long> expected = DifferentialHarness.reference(messages).balances();
+
+        try (TieredAccountStore store = new TieredAccountStore(path, 8, 256, 4)) {
+            TransactionProcessor processor = new TransactionProcessor(store, (message, status) -> { });
+            processor.processMessages(messages);
+            assertEquals(expected, DifferentialHarness.balances(processor.getNonZeroAccountsSorted()));
+            assertTrue(store.getEvictionCount() > 0);
+            assertTrue(store.getResidentCount() <= 8);
+        }
+    }
+
+    @Test
+    void testProcessorResumesLimitWindowAndAggregatesOnReopen() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            TransactionProcessor processor = new TransactionProcessor(store, (message, status) -> { });
+            processor.rollLimitWindow();
+            processor.rollLimitWindow();
+            processor.processMessages(new String[] {
+                "10101088888888880000100000",
+                "10201088888888880000020000",
+                "10201088888888880000020000",
+                "10101099999999990000005000"
+            });
+        }
+        try (TieredAccountStore store = new TieredAccountStore(path, 4, 64)) {
+            TransactionProcessor processor = new TransactionProcessor(store, (message, status) -> { });
+
+            assertEquals(2, processor.getLimitEpoch());
+            assertEquals(65000, processor.getTotalBalanceInCents());
+            assertEquals(2, processor.getNonZeroAccountCount());
+            assertEquals(OptionalLong.of(10000), processor.getOutgoingWatchlist().getHeadroomInCents("8888888888"));
+            // 40000 already went out in the resumed window
+            assertFalse(processor.processMessage("10201088888888880000015000"));
+            assertTrue(processor.processMessage("10201088888888880000010000"));
+        }
+    }
+
+    @Test
+    void testFullFileIsRejected() throws IOException {
+        try (DiskAccountFile file = new DiskAccountFile(path, 4)) {
+            file.writeAll(List.of(account("1", 1), account("2", 1), account("3", 1)));
+            assertEquals(3, file.size());
+            assertThrows(IllegalStateException.class, () -> file.writeAll(List.of(account("4", 1))));
+            assertEquals(1, file.read("2").getBalanceInCents());
+        }
+    }
+
+    @Test
+    void testNewAccountIsRefusedBeforeTheFileOverflows() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 1, 4, 1)) {
+            store.put(account("1", 100));
+            store.put(account("2", 200));
+            store.put(account("3", 300));
+            assertThrows(IllegalStateException.class, () -> store.put(account("4", 400)));
+
+            Map<String, Long> balances = new HashMap<>();
+            store.forEach(account -> balances.put(account.getAccountNumber(), account.getBalanceInCents()));
+            assertEquals(Map.of("1", 100L, "2", 200L, "3", 300L), balances);
+        }
+    }
+
+    @Test
+    void testFailedWriteBackKeepsTheAccountAndNamesIt() throws IOException {
+        // An account number the file cannot store makes the write-back triggered by its eviction fail
+        String unstorable = "9".repeat(DiskAccountFile.MAX_ACCOUNT_NUMBER_BYTES + 1);
+        TieredAccountStore store = new TieredAccountStore(path, 1, 64, 1);
+        store.put(account(unstorable, 700));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> store.put(account("2", 200)));
+        assertTrue(failure.getMessage().contains(unstorable));
+        assertEquals(700, store.get(unstorable).getBalanceInCents());
+        assertEquals(0, store.getEvictionCount());
+        assertThrows(IllegalStateException.class, store::close);
+    }
+
+    @Test
+    void testScanDoesNotReorderTheCache() throws IOException {
+        try (TieredAccountStore store = new TieredAccountStore(path, 2, 64)) {
+            store.put(account("A", 1));
+            store.put(account("B", 1));
+            store.get("A");
+            store.forEach(account -> { });
+
+            // B is still the least recently used account, so adding C evicts it rather than A
+            store.put(account("C", 1));
+            long misses = store.getMissCount();
+            store.get("A");
+            assertEquals(misses, store.getMissCount());
+            store.get("B");
+            assertEquals(misses + 1, store.getMissCount());
+        }
+    }
+
+    @Test
+    void testFilesOfAnotherLayoutAreRefused() throws IOException {
+        // A version 1 file: no header, 128-byte slots
+        Files.write(path, new byte[128 * 64]);
+        assertThrows(IOException.class, () -> new DiskAccountFile(path, 64));
+
+        Files.write(path, new byte[0]);
+        try (DiskAccountFile file = new DiskAccountFile(path, 64)) {
+            file.writeAll(List.of(account("1", 1)));
+        }
+        assertEquals(DiskAccountFile.HEADER_SIZE + 64L * DiskAccountFile.SLOT_SIZE, Files.size(path));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, DiskAccountFile.VERSION + 1), Integer.BYTES);
+        }
+        IOException failure = assertThrows(IOException.class, () -> new DiskAccountFile(path, 64));
+        assertTrue(failure.getMessage().contains("version " + (DiskAccountFile.VERSION + 1)));
+    }
+
+    private static BankAccount account(String accountNumber, long balanceInCents) {
+        return BankAccount.builder()
+                .accountNumber(accountNumber)
+                .balanceInCents(balanceInCents)
+                .totalOutInCents(0)
+                .build();
+    }
+}
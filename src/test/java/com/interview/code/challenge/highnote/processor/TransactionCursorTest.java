@@ -0,0 +1,74 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static com.interview.code.challenge.highnote.model.TransactionType.DEPOSIT;
+import static com.interview.code.challenge.highnote.model.TransactionType.TRANSFER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.interview.code.challenge.highnote.model.BankAccount;
+import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.TransactionType;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+class TransactionCursorTest {
+
+    @Test
+    void testCursorIsReusedAcrossMessages() {
+        TransactionCursor cursor = new TransactionCursor();
+
+        assertEquals(ValidationStatus.VALID, cursor.parse("10101088888888880000010000"));
+        assertEquals(DEPOSIT, cursor.getType());
+        assertEquals("8888888888", cursor.getAccountNumber());
+        assertNull(cursor.getDestinationAccountNumber());
+        assertEquals(10000, cursor.getAmountInCents());
+
+        assertEquals(ValidationStatus.VALID, cursor.parse("2010064447770712345670000020000"));
+        assertEquals(TRANSFER, cursor.getType());
+        assertEquals("444777", cursor.getAccountNumber());
+        assertEquals("1234567", cursor.getDestinationAccountNumber());
+        assertEquals(20000, cursor.getAmountInCents());
+
+        assertEquals(ValidationStatus.UNKNOWN_CODE, cursor.parse("INVALID_MESSAGE"));
+    }
+
+    @Test
+    void testToTransactionMatchesParse() {
+        TransactionCursor cursor = new TransactionCursor();
+        for (TransactionType type : TransactionType.values()) {
+            String message = type.getCode() + "06111111" + (type.getAccountFields() == 2 ? "0623459h" : "") + "0000005000";
+            assertEquals(ValidationStatus.VALID, cursor.parse(message));
+            assertEquals(Transaction.parse(message), cursor.toTransaction(), type.name());
+        }
+    }
+
+    @Test
+    void testProcessMessagesMatchesTransactionPath() throws IOException {
+        String[] input = Files.readAllLines(Path.of("src/test/resources/mix_transaction_input.txt")).toArray(new String[0]);
+
+        TransactionProcessor reference = new TransactionProcessor();
+        reference.processTransactions(reference.parseTransaction(input));
+        TransactionProcessor flyweight = new TransactionProcessor();
+        List<BankAccount> accounts = flyweight.processMessages(input);
+
+        assertEquals(balances(reference.getNonZeroAccountsSorted()), balances(accounts));
+        assertTrue(flyweight.processMessage("10101088888888880000010000"));
+        assertFalse(flyweight.processMessage("10201099999999990000010000"));
+        assertFalse(flyweight.processMessage("1010"));
+        assertEquals(1, flyweight.getQuarantinedCount());
+    }
+
+    private static Map<String, Long> balances(List<BankAccount> accounts) {
+        return accounts.stream().collect(Collectors.toMap(BankAccount::getAccountNumber, BankAccount::getBalanceInCents));
+    }
+}
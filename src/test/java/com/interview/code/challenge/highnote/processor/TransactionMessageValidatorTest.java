@@ -0,0 +1,64 @@
+package com.interview.code.challenge.highnote.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.ValidationStatus;
+
+class TransactionMessageValidatorTest {
+
+    @Test
+    void testValidMessages() {
+        assertEquals(ValidationStatus.VALID, TransactionMessageValidator.validate("10101088888888880000010000"));
+        assertEquals(ValidationStatus.VALID, TransactionMessageValidator.validate("10201088888888880000005000"));
+        assertEquals(ValidationStatus.VALID, TransactionMessageValidator.validate("2010064447770712345670000020000"));
+    }
+
+    @Test
+    void testMissingOrUnknownCode() {
+        assertEquals(ValidationStatus.MISSING_CODE, TransactionMessageValidator.validate(null));
+        assertEquals(ValidationStatus.MISSING_CODE, TransactionMessageValidator.validate("101"));
+        assertEquals(ValidationStatus.UNKNOWN_CODE, TransactionMessageValidator.validate("99991088888888880000010000"));
+        assertEquals(ValidationStatus.UNKNOWN_CODE, TransactionMessageValidator.validate("INVALID_MESSAGE"));
+    }
+
+    @Test
+    void testInvalidLengthPrefix() {
+        assertEquals(ValidationStatus.INVALID_LENGTH_PREFIX, TransactionMessageValidator.validate("1010"));
+        assertEquals(ValidationStatus.INVALID_LENGTH_PREFIX, TransactionMessageValidator.validate("1010XX88888888880000010000"));
+        assertEquals(ValidationStatus.INVALID_LENGTH_PREFIX, TransactionMessageValidator.validate("1010000000010000"));
+        assertEquals(ValidationStatus.INVALID_LENGTH_PREFIX, TransactionMessageValidator.validate("201006444777XX12345670000020000"));
+    }
+
+    @Test
+    void testInvalidTotalLength() {
+        assertEquals(ValidationStatus.INVALID_TOTAL_LENGTH, TransactionMessageValidator.validate("1010108888888888"));
+        assertEquals(ValidationStatus.INVALID_TOTAL_LENGTH, TransactionMessageValidator.validate("101010888888888800000100000"));
+        assertEquals(ValidationStatus.INVALID_TOTAL_LENGTH, TransactionMessageValidator.validate("101099888888"));
+    }
+
+    @Test
+    void testInvalidAmount() {
+        assertEquals(ValidationStatus.INVALID_AMOUNT, TransactionMessageValidator.validate("1010108888888888000001000A"));
+        assertEquals(ValidationStatus.INVALID_AMOUNT, TransactionMessageValidator.validate("1010108888888888-000010000"));
+    }
+
+    @Test
+    void testProcessorQuarantinesInvalidMessages() {
+        List<String> quarantined = new ArrayList<>();
+        TransactionProcessor processor = new TransactionProcessor((message, status) -> quarantined.add(status + ":" + message));
+        String[] messages = {
+            "10101088888888880000010000",
+            "INVALID_MESSAGE",
+            "1010108888888888",
+            "10201088888888880000005000"
+        };
+        List<Transaction> transactions = processor.parseTransaction(messages);
+
+        assertEquals(2, transactions.size());
+        assertEquals(2, processor.getQuarantinedCount());
+        assertEquals(List.of("UNKNOWN_CODE:INVALID_MESSAGE", "INVALID_TOTAL_LENGTH:1010108888888888"), quarantined);
+    }
+}
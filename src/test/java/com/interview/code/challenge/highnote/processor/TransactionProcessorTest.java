@@ -2,9 +2,9 @@ package com.interview.code.challenge.highnote.processor;
 
 import com.interview.code.challenge.highnote.model.ProcessTransactionsRequest;
 import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.TransactionType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
-import org.mockito.InjectMocks;
 
 import com.interview.code.challenge.highnote.model.BankAccount;
 import org.mockito.Mock;
@@ -19,12 +19,13 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 class TransactionProcessorTest {
-    @InjectMocks private TransactionProcessor processor;
+    private TransactionProcessor processor;
     @Mock private TransactionProcessorService processorApp;
 
     @BeforeEach
     void setUp() {
         openMocks(this);
+        processor = new TransactionProcessor();
     }
 
     @Test
@@ -110,6 +111,235 @@ class TransactionProcessorTest {
         assertEquals(5000, account.getBalanceInCents()); // Only valid transactions processed
     }
     
+    @Test
+    void testAggregatesTrackBalancesAndOutgoing() {
+        String[] messages = {
+            "10101088888888880000010000", // Account 1: Deposit $100.00
+            "10101099999999990000020000", // Account 2: Deposit $200.00
+            "10101077777777770000005000", // Account 3: Deposit $50.00
+            "10201077777777770000005000", // Account 3: Withdraw $50.00
+            "20101099999999991088888888880000001500" // Transfer $15.00 from account 2 to account 1
+        };
+        List<Transaction> transactions = processor.parseTransaction(messages);
+        processor.processTransactions(transactions);
+
+        assertEquals(30000, processor.getTotalBalanceInCents());
+        assertEquals(2, processor.getNonZeroAccountCount());
+
+        List<BankAccount> topByBalance = processor.getTopAccountsByBalance(5);
+        assertEquals(2, topByBalance.size());
+        assertEquals("9999999999", topByBalance.get(0).getAccountNumber());
+        assertEquals("8888888888", topByBalance.get(1).getAccountNumber());
+
+        List<BankAccount> topByTotalOut = processor.getTopAccountsByTotalOut(1);
+        assertEquals(1, topByTotalOut.size());
+        assertEquals("7777777777", topByTotalOut.get(0).getAccountNumber());
+    }
+
+    @Test
+    void testAccountsNearOutgoingLimit() {
+        String[] messages = {
+            "10101088888888880000100000", // Deposit $1000.00
+            "10201088888888880000020000", // Withdraw $200.00
+            "10201088888888880000020000", // Withdraw $200.00
+            "10101099999999990000100000", // Deposit $1000.00
+            "10201099999999990000010000"  // Withdraw $100.00
+        };
+        List<Transaction> transactions = processor.parseTransaction(messages);
+        processor.processTransactions(transactions);
+
+        List<BankAccount> nearLimit = processor.getAccountsNearOutgoingLimit(10000);
+        assertEquals(1, nearLimit.size());
+        assertEquals("8888888888", nearLimit.get(0).getAccountNumber());
+        assertEquals(2, processor.getAccountsNearOutgoingLimit(40000).size());
+    }
+    
+    @Test
+    void testOutgoingWatchlistTracksCappedAccounts() {
+        String[] messages = {
+            "10101088888888880000100000", // Deposit $1000.00
+            "10201088888888880000020000", // Withdraw $200.00
+            "10201088888888880000020000", // Withdraw $200.00 - $100.00 headroom left
+            "10201088888888880000010000", // Withdraw $100.00 - limit reached
+            "10201088888888880000000100"  // Withdraw $1.00 - rejected up front
+        };
+        List<Transaction> transactions = processor.parseTransaction(messages);
+        processor.processTransactions(transactions);
+
+        OutgoingLimitWatchlist watchlist = processor.getOutgoingWatchlist();
+        assertTrue(watchlist.getExhaustedAccounts().contains("8888888888"));
+        assertTrue(watchlist.isDoomed("8888888888", 1));
+        assertFalse(watchlist.isDoomed("9999999999", 20000));
+        assertEquals(0, watchlist.getHeadroomInCents("8888888888").getAsLong());
+        assertEquals(50000, processor.getAccount("8888888888").getBalanceInCents());
+    }
+
+    @Test
+    void testOutgoingWatchlistHeadroomBuckets() {
+        OutgoingLimitWatchlist watchlist = new OutgoingLimitWatchlist();
+        watchlist.onTotalOutChanged("1111111", 45000); // $50.00 headroom
+        watchlist.onTotalOutChanged("2222222", 49550); // $4.50 headroom
+        watchlist.onTotalOutChanged("3333333", 10000); // not watched
+
+        assertEquals(2, watchlist.size());
+        assertEquals(1, watchlist.getAccountsWithHeadroomBelow(5000).size());
+        assertEquals(2, watchlist.getAccountsWithHeadroomBelow(5001).size());
+        assertTrue(watchlist.getExhaustedAccounts().isEmpty());
+
+        watchlist.onTotalOutChanged("2222222", 50000);
+        assertEquals(1, watchlist.getExhaustedAccounts().size());
+        assertTrue(watchlist.getHeadroomInCents("3333333").isEmpty());
+    }
+    
+    @Test
+    void testRollLimitWindowRestoresOutgoingHeadroom() {
+        String[] firstDay = {
+            "10101088888888880000100000", // Deposit $1000.00
+            "10201088888888880000020000", // Withdraw $200.00
+            "10201088888888880000020000", // Withdraw $200.00
+            "10201088888888880000010000", // Withdraw $100.00 - limit reached
+        };
+        processor.processTransactions(processor.parseTransaction(firstDay));
+        assertTrue(processor.getOutgoingWatchlist().getExhaustedAccounts().contains("8888888888"));
+
+        processor.rollLimitWindow();
+        assertEquals(1, processor.getLimitEpoch());
+        assertTrue(processor.getOutgoingWatchlist().getExhaustedAccounts().isEmpty());
+        assertTrue(processor.getTopAccountsByTotalOut(5).isEmpty());
+
+        String[] secondDay = {"10201088888888880000020000"}; // Withdraw $200.00
+        processor.processTransactions(processor.parseTransaction(secondDay));
+        BankAccount account = processor.getAccount("8888888888");
+        assertEquals(30000, account.getBalanceInCents());
+        assertEquals(20000, account.getTotalOutInCents(processor.getLimitEpoch()));
+    }
+    
+    @Test
+    void testDepositsIntoHotAccountAreCoalesced() {
+        String[] messages = new String[24];
+        for (int i = 0; i < 20; i++) {
+            messages[i] = "10101088888888880000001000"; // Deposit $10.00
+        }
+        messages[20] = "10101088888888880001000001"; // Deposit $1000.01 - exceeds limit, run continues
+        messages[21] = "10101088888888880000001000"; // Deposit $10.00
+        messages[22] = "10201088888888880000005000"; // Withdraw $50.00 - ends the run
+        messages[23] = "10101088888888880000001000"; // Deposit $10.00
+
+        boolean[] outcomes = new boolean[messages.length];
+        processor.applyMessages(messages, 0, messages.length, outcomes);
+
+        assertTrue(processor.getCoalescedDepositCount() > 0);
+        assertFalse(outcomes[20]);
+        assertTrue(outcomes[21]);
+        assertTrue(outcomes[22]);
+        assertEquals(22000 - 5000, processor.getAccount("8888888888").getBalanceInCents());
+        assertEquals(17000, processor.getTotalBalanceInCents());
+    }
+    
+    @Test
+    void testRegisteredHandlerReplacesBuiltInDispatch() {
+        List<String> seen = new ArrayList<>();
+        processor.registerHandler(TransactionType.WITHDRAWAL, (accountNumber, secondField, amountInCents) -> {
+            seen.add(accountNumber + ":" + amountInCents);
+            return true;
+        });
+        String[] messages = {
+            "10101088888888880000010000",
+            "10201088888888880000005000"
+        };
+        boolean[] outcomes = new boolean[messages.length];
+        processor.applyMessages(messages, 0, messages.length, outcomes);
+
+        assertTrue(outcomes[1]);
+        assertEquals(List.of("8888888888:5000"), seen);
+        assertEquals(10000, processor.getAccount("8888888888").getBalanceInCents());
+    }
+    
+    @Test
+    void testRegisteredDepositHandlerSeesEveryHotAccountDeposit() {
+        List<Long> seen = new ArrayList<>();
+        processor.registerHandler(TransactionType.DEPOSIT, (accountNumber, secondField, amountInCents) -> {
+            seen.add(amountInCents);
+            return true;
+        });
+        String[] messages = new String[20];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = "10101088888888880000001000"; // Deposit $10.00
+        }
+        boolean[] outcomes = new boolean[messages.length];
+        processor.applyMessages(messages, 0, messages.length, outcomes);
+
+        // Runs are only combined for the built-in deposit handler
+        assertEquals(0, processor.getCoalescedDepositCount());
+        assertEquals(messages.length, seen.size());
+        assertNull(processor.getAccount("8888888888"));
+    }
+    
+    @Test
+    void testHoldReservesAvailableBalanceUntilCaptured() {
+        String[] messages = {
+            "10101088888888880000030000",
+            "301010888888888802h10000020000",
+            "10201088888888880000015000",
+            "302010888888888802h10000012000",
+            "304010888888888802h10000002000",
+            "303010888888888802h10000000000"
+        };
+        boolean[] outcomes = new boolean[messages.length];
+        processor.applyMessages(messages, 0, messages.length, outcomes);
+
+        assertTrue(outcomes[1]);
+        // Only 10000 is available next to the 20000 hold
+        assertFalse(outcomes[2]);
+        assertTrue(outcomes[3]);
+        assertTrue(outcomes[4]);
+        // Already captured, nothing left to release
+        assertFalse(outcomes[5]);
+        BankAccount account = processor.getAccount("8888888888");
+        assertEquals(30000 - 12000 + 2000, account.getBalanceInCents());
+        assertEquals(0, account.getHeldInCents());
+        assertEquals(10000, account.getTotalOutInCents());
+        assertEquals(0, processor.getPendingHoldCount());
+    }
+    
+    @Test
+    void testUncapturedHoldExpires() {
+        processor.setHoldTtlSeconds(3600);
+        processor.advanceHoldClock(1_000);
+        processor.processMessages(new String[] {
+            "10101088888888880000030000",
+            "301010888888888802h10000020000"
+        });
+        assertEquals(10000, processor.getAccount("8888888888").getAvailableBalanceInCents());
+
+        processor.advanceHoldClock(4_599);
+        assertEquals(1, processor.getPendingHoldCount());
+        processor.advanceHoldClock(4_600);
+        assertEquals(0, processor.getPendingHoldCount());
+        assertEquals(30000, processor.getAccount("8888888888").getAvailableBalanceInCents());
+        assertFalse(processor.processMessage("302010888888888802h10000020000"));
+    }
+    
+    @Test
+    void testReversalIsBoundedByCaptureAndClosesWithItsWindow() {
+        processor.setHoldTtlSeconds(3600);
+        processor.advanceHoldClock(1_000);
+        processor.processMessages(new String[] {
+            "10101088888888880000030000",
+            "301010888888888802h10000020000",
+            "302010888888888802h10000012000"
+        });
+        // More than the captured amount cannot be reversed
+        assertFalse(processor.processMessage("304010888888888802h10000012001"));
+        assertTrue(processor.processMessage("304010888888888802h10000002000"));
+        assertEquals(20000, processor.getAccount("8888888888").getBalanceInCents());
+        assertEquals(10000, processor.getAccount("8888888888").getTotalOutInCents());
+
+        processor.advanceHoldClock(4_600);
+        assertFalse(processor.processMessage("304010888888888802h10000001000"));
+        assertEquals(20000, processor.getAccount("8888888888").getBalanceInCents());
+    }
+    
     private static String[] loadFileLines() {
         try {
             BufferedReader in = new BufferedReader(
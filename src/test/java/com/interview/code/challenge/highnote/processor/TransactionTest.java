@@ -2,10 +2,13 @@ package com.interview.code.challenge.highnote.processor;
 
 import static com.interview.code.challenge.highnote.model.TransactionType.DEPOSIT;
 import static com.interview.code.challenge.highnote.model.TransactionType.WITHDRAWAL;
+import static com.interview.code.challenge.highnote.model.TransactionType.TRANSFER;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
 import com.interview.code.challenge.highnote.model.Transaction;
+import com.interview.code.challenge.highnote.model.TransactionType;
 
 class TransactionTest {
     
@@ -61,4 +64,15 @@ class TransactionTest {
             Transaction.parse(message);
         });
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCodeTableLookup() {
+        assertEquals(DEPOSIT, TransactionType.fromCode("1010"));
+        assertEquals(TRANSFER, TransactionType.fromMessage("20100212021300000001"));
+        assertNull(TransactionType.fromMessage("1011"));
+        assertNull(TransactionType.fromMessage("10x0"));
+        assertNull(TransactionType.fromMessage("101"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionType.fromCode("10100"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionType.fromCode("9999"));
+    }
+}